@@ -0,0 +1,117 @@
+package com.example.profileservice.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+
+/**
+ * Limit on in-flight requests that follows the latency of the service behind it, in the manner
+ * of TCP Vegas.
+ * <p>
+ * The lowest latency seen is taken as the latency without load. Each completed request estimates
+ * how many requests are queued at the service from the ratio of that baseline to its own latency:
+ * while the estimate stays small the limit grows, and once it passes a few requests the limit
+ * shrinks again. Timeouts and overload responses halve the limit. The thresholds scale with the
+ * logarithm of the limit, so a large limit does not swing by whole requests. The baseline is reset
+ * to the latest latency every {@code baselineResetInterval}, so it follows a service that moved
+ * or got slower for good instead of shrinking the limit forever. The limit is not raised while
+ * less than half of it is in use, since such samples say nothing about the service's capacity.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long baselineResetNanos;
+    private final Counter rejections;
+    private double limit;
+    private int inFlight;
+    private long baselineNanos;
+    private long baselineSetAt;
+
+    public AdaptiveConcurrencyLimit(String name, int initialLimit, int minLimit, int maxLimit,
+                                    Duration baselineResetInterval, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.baselineResetNanos = baselineResetInterval.toNanos();
+        this.limit = Math.min(Math.max(initialLimit, minLimit), maxLimit);
+        this.rejections = Counter.builder("user.concurrency.rejections")
+                .description("Requests to User Service rejected by the concurrency limit")
+                .tag("name", name)
+                .register(meterRegistry);
+        Gauge.builder("user.concurrency.limit", this, AdaptiveConcurrencyLimit::getLimit)
+                .description("Current limit on in-flight requests to User Service")
+                .tag("name", name)
+                .register(meterRegistry);
+        Gauge.builder("user.concurrency.in.flight", this, AdaptiveConcurrencyLimit::getInFlight)
+                .description("Requests to User Service in flight")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes a slot for one request.
+     *
+     * @throws ConcurrencyLimitExceededException when the limit is reached
+     */
+    public synchronized void acquire() {
+        if (inFlight >= (int) limit) {
+            rejections.increment();
+            throw new ConcurrencyLimitExceededException(name, (int) limit);
+        }
+        inFlight++;
+    }
+
+    /**
+     * Gives the slot back and adjusts the limit to the request's latency.
+     *
+     * @param latencyNanos time from {@link #acquire()} until the response arrived
+     * @param dropped      whether the request timed out or the service reported overload
+     */
+    public synchronized void release(long latencyNanos, boolean dropped) {
+        int sampledInFlight = inFlight--;
+        if (dropped) {
+            limit = Math.max(minLimit, limit / 2);
+            return;
+        }
+
+        long now = System.nanoTime();
+        if (baselineNanos == 0 || latencyNanos < baselineNanos || now - baselineSetAt >= baselineResetNanos) {
+            baselineNanos = Math.max(1, latencyNanos);
+            baselineSetAt = now;
+        }
+
+        double queued = Math.ceil(limit * (1 - (double) baselineNanos / latencyNanos));
+        double step = Math.max(1, Math.log10(limit));
+        if (queued <= step) {
+            if (sampledInFlight * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + 6 * step);
+            }
+        } else if (queued < 3 * step) {
+            if (sampledInFlight * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + step);
+            }
+        } else if (queued > 6 * step) {
+            limit = Math.max(minLimit, limit - step);
+        }
+    }
+
+    /**
+     * Gives the slot back without a latency sample, for requests that failed before reaching the
+     * service.
+     */
+    public synchronized void releaseWithoutSample() {
+        inFlight--;
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.profileservice.client;
+
+import com.example.profileservice.config.UserAsyncProperties;
+import com.example.profileservice.dto.UserBatchDTO;
+import com.example.profileservice.dto.UserBatchRequestDTO;
+import com.example.profileservice.dto.UserDTO;
+import com.example.profileservice.exception.UserNotFoundException;
+import feign.FeignException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Future-returning facade over {@link UserClient}.
+ * <p>
+ * Spring Cloud OpenFeign clients are blocking, so calls run on a small dedicated pool, or on
+ * virtual threads in virtual-thread mode, instead of the caller's thread. A request thread that
+ * composes on the returned future is free to serve other requests while User Service responds.
+ * Slow calls are hedged by {@link UserRequestHedger} when hedging is enabled; conditional
+ * requests are background revalidations and are not.
+ */
+@Component
+public class AsyncUserClient implements DisposableBean {
+
+    private final UserClient userClient;
+    private final UserRequestHedger hedger;
+    private final ExecutorService executor;
+
+    public AsyncUserClient(UserClient userClient,
+                           UserRequestHedger hedger,
+                           UserAsyncProperties properties,
+                           @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.userClient = userClient;
+        this.hedger = hedger;
+        this.executor = WorkerThreads.newExecutor("user-client-", properties.getThreads(), virtualThreads);
+    }
+
+    public CompletableFuture<UserDTO> getUserById(Long userId) {
+        if (hedger.isEnabled()) {
+            return hedger.execute(() -> fetch(userId));
+        }
+        return CompletableFuture.supplyAsync(() -> fetch(userId), executor);
+    }
+
+    /**
+     * Fetches a user for a caller that waits for the answer anyway. The call runs on the caller's
+     * thread unless hedging is enabled, which needs both attempts on the hedger's threads.
+     */
+    public UserDTO getUserByIdBlocking(Long userId) {
+        if (hedger.isEnabled()) {
+            return Futures.join(hedger.execute(() -> fetch(userId)));
+        }
+        return fetch(userId);
+    }
+
+    /**
+     * Fetches a user unless it still matches {@code etag}, in which case the response is a
+     * {@code 304 Not Modified} without a body. A {@code null} etag makes it a plain GET that
+     * also returns the user's current ETag.
+     */
+    public CompletableFuture<ResponseEntity<UserDTO>> getUserByIdIfNoneMatch(Long userId, String etag) {
+        return CompletableFuture.supplyAsync(() -> fetchIfNoneMatch(userId, etag), executor);
+    }
+
+    /**
+     * Fetches several users with one batch call, for loading users ahead of their first read.
+     * Not hedged.
+     */
+    public CompletableFuture<UserBatchDTO> getUsersByIds(List<Long> userIds) {
+        return CompletableFuture.supplyAsync(
+                () -> userClient.getUsersByIds(new UserBatchRequestDTO(userIds)), executor);
+    }
+
+    private UserDTO fetch(Long userId) {
+        try {
+            return userClient.getUserById(userId);
+        } catch (FeignException.NotFound ex) {
+            throw new UserNotFoundException(userId);
+        }
+    }
+
+    private ResponseEntity<UserDTO> fetchIfNoneMatch(Long userId, String etag) {
+        try {
+            return userClient.getUserByIdIfNoneMatch(userId, etag);
+        } catch (FeignException.NotFound ex) {
+            throw new UserNotFoundException(userId);
+        } catch (FeignException ex) {
+            // Feign only decodes 2xx responses, a 304 arrives through the error decoder
+            if (ex.status() == HttpStatus.NOT_MODIFIED.value()) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+            throw ex;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.profileservice.client;
+
+import feign.Capability;
+import feign.Client;
+import feign.Response;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+import org.springframework.core.Ordered;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.UnaryOperator;
+
+/**
+ * Feign capability that runs every request of a client inside a bulkhead. A full bulkhead rejects
+ * the request with a {@link io.github.resilience4j.bulkhead.BulkheadFullException} instead of
+ * queueing it behind the slow ones. It is the outermost capability, so a rejected request never
+ * takes a slot of the concurrency limit.
+ */
+public final class BulkheadCapability implements Capability, Ordered {
+
+    public static final int ORDER = RetryBudgetCapability.ORDER + 1;
+
+    private final UnaryOperator<Client> bulkheadClient;
+
+    private BulkheadCapability(UnaryOperator<Client> bulkheadClient) {
+        this.bulkheadClient = bulkheadClient;
+    }
+
+    /**
+     * Runs requests on the caller's thread while holding one of the bulkhead's permits, waiting
+     * at most its {@code maxWaitDuration} for one.
+     */
+    public static BulkheadCapability semaphore(Bulkhead bulkhead) {
+        return new BulkheadCapability(delegate -> (request, options) -> {
+            bulkhead.acquirePermission();
+            try {
+                return delegate.execute(request, options);
+            } finally {
+                bulkhead.onComplete();
+            }
+        });
+    }
+
+    /**
+     * Runs requests on the bulkhead's own threads; the caller waits for the response, but at most
+     * the bulkhead's pool and queue size of callers can wait on User Service at once.
+     */
+    public static BulkheadCapability threadPool(ThreadPoolBulkhead bulkhead) {
+        return new BulkheadCapability(delegate -> (request, options) -> {
+            CompletableFuture<Response> response = bulkhead
+                    .submit(() -> delegate.execute(request, options))
+                    .toCompletableFuture();
+            try {
+                return response.get();
+            } catch (InterruptedException ex) {
+                response.cancel(true);
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for " + request.url());
+            } catch (ExecutionException ex) {
+                if (ex.getCause() instanceof IOException io) {
+                    throw io;
+                }
+                throw Futures.unwrap(ex.getCause());
+            }
+        });
+    }
+
+    @Override
+    public Client enrich(Client client) {
+        return bulkheadClient.apply(client);
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+}
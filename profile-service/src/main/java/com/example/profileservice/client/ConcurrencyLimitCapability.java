@@ -0,0 +1,56 @@
+package com.example.profileservice.client;
+
+import feign.Capability;
+import feign.Client;
+import feign.Response;
+import org.springframework.core.Ordered;
+
+import java.io.IOException;
+
+/**
+ * Feign capability that runs every request of a client under an {@link AdaptiveConcurrencyLimit}.
+ * Requests over the limit fail with a {@link ConcurrencyLimitExceededException} before anything
+ * is sent; I/O failures and {@code 429}/{@code 503} responses count as drops and cut the limit.
+ * It sits just outside the {@link DeadlineCapability}, inside the bulkhead, so a request holds a
+ * slot only once the bulkhead has let it through.
+ */
+public final class ConcurrencyLimitCapability implements Capability, Ordered {
+
+    public static final int ORDER = DeadlineCapability.ORDER + 1;
+
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final int SERVICE_UNAVAILABLE = 503;
+
+    private final AdaptiveConcurrencyLimit limit;
+
+    public ConcurrencyLimitCapability(AdaptiveConcurrencyLimit limit) {
+        this.limit = limit;
+    }
+
+    @Override
+    public Client enrich(Client client) {
+        return (request, options) -> {
+            limit.acquire();
+            long start = System.nanoTime();
+            Response response;
+            try {
+                response = client.execute(request, options);
+            } catch (IOException ex) {
+                limit.release(System.nanoTime() - start, true);
+                throw ex;
+            } catch (RuntimeException ex) {
+                // the transport failed without an answer from User Service: says nothing about its latency
+                limit.releaseWithoutSample();
+                throw ex;
+            }
+            int status = response.status();
+            limit.release(System.nanoTime() - start, status == TOO_MANY_REQUESTS || status == SERVICE_UNAVAILABLE);
+            return response;
+        };
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+}
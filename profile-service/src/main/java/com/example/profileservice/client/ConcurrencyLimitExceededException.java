@@ -0,0 +1,12 @@
+package com.example.profileservice.client;
+
+/**
+ * Thrown instead of sending a request to User Service when the adaptive concurrency limit is
+ * reached. It is not retryable, so the caller goes straight to its fallback.
+ */
+public class ConcurrencyLimitExceededException extends RuntimeException {
+
+    public ConcurrencyLimitExceededException(String name, int limit) {
+        super("Concurrency limit of " + limit + " requests to " + name + " reached");
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.profileservice.client;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.URIScheme;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Opens connections to a target ahead of traffic so the first requests do not pay for TCP and TLS
+ * setup.
+ * <p>
+ * All connections are leased before any is released, which guarantees that each one is a distinct
+ * socket; they are then handed back to the pool as reusable.
+ */
+@Slf4j
+public class ConnectionPrewarmer {
+
+    private final HttpClientConnectionManager connectionManager;
+
+    public ConnectionPrewarmer(HttpClientConnectionManager connectionManager) {
+        this.connectionManager = connectionManager;
+    }
+
+    public int prewarm(URI target, int connections, Timeout timeout, TimeValue keepAlive) {
+        HttpRoute route = routeTo(target);
+        List<ConnectionEndpoint> endpoints = new ArrayList<>(connections);
+        int connected = 0;
+        try {
+            for (int i = 0; i < connections; i++) {
+                ConnectionEndpoint endpoint = connectionManager
+                        .lease("prewarm-" + i, route, timeout, null)
+                        .get(timeout);
+                endpoints.add(endpoint);
+                if (!endpoint.isConnected()) {
+                    connectionManager.connect(endpoint, timeout, HttpClientContext.create());
+                }
+                connected++;
+            }
+        } catch (Exception ex) {
+            log.warn("Pre-warmed {} of {} connections to {}: {}", connected, connections, target, ex.toString());
+        } finally {
+            endpoints.forEach(endpoint -> connectionManager.release(endpoint, null, keepAlive));
+        }
+        return connected;
+    }
+
+    private HttpRoute routeTo(URI target) {
+        boolean secure = URIScheme.HTTPS.same(target.getScheme());
+        int port = target.getPort() != -1 ? target.getPort() : (secure ? 443 : 80);
+        return new HttpRoute(new HttpHost(target.getScheme(), target.getHost(), port), null, secure);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.profileservice.client;
+
+import feign.Capability;
+import feign.Client;
+import feign.Request;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Feign capability that gives every request a time budget and tells the server about it.
+ * <p>
+ * The budget is sent in {@value #HEADER} and also becomes the read timeout of the request, so
+ * the server stops working on the request at about the time this client stops waiting for it. A
+ * read timeout configured below the budget wins and is sent instead. The capability orders itself
+ * closest to the transport, so time spent waiting in the bulkhead or the concurrency limit does
+ * not count against the server's budget.
+ * <p>
+ * Feign wraps the client with the capabilities in order, so a lower order sits closer to the
+ * transport: deadline, then {@link ConcurrencyLimitCapability}, {@link RetryBudgetCapability} and
+ * {@link BulkheadCapability} outermost.
+ */
+public final class DeadlineCapability implements Capability, Ordered {
+
+    /**
+     * Milliseconds this client is still willing to wait for the response.
+     */
+    public static final String HEADER = "X-Request-Timeout-Ms";
+
+    public static final int ORDER = Ordered.HIGHEST_PRECEDENCE;
+
+    private final long budgetMillis;
+
+    public DeadlineCapability(Duration budget) {
+        this.budgetMillis = budget.toMillis();
+    }
+
+    @Override
+    public Client enrich(Client client) {
+        return (request, options) -> {
+            long timeoutMillis = Math.min(budgetMillis, options.readTimeoutMillis());
+
+            Map<String, Collection<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            headers.putAll(request.headers());
+            headers.put(HEADER, List.of(Long.toString(timeoutMillis)));
+            Request withDeadline = Request.create(request.httpMethod(), request.url(), headers,
+                    request.body(), request.charset(), request.requestTemplate());
+
+            return client.execute(withDeadline, new Request.Options(
+                    options.connectTimeout(), options.connectTimeoutUnit(),
+                    timeoutMillis, TimeUnit.MILLISECONDS,
+                    options.isFollowRedirects()));
+        };
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+}
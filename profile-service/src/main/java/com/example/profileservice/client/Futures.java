@@ -0,0 +1,64 @@
+package com.example.profileservice.client;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class Futures {
+
+    /**
+     * Waits for the future and rethrows unchecked failures as they were raised, so callers see
+     * the same exceptions as with a direct call.
+     */
+    public static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            throw unwrap(ex);
+        }
+    }
+
+    /**
+     * Returns a future that completes like the given one, but fails with the original exception
+     * instead of the {@link CompletionException} that dependent stages wrap it in. Resilience4j
+     * matches retry and circuit breaker exceptions against the failure exactly as reported.
+     */
+    public static <T> CompletableFuture<T> unwrapFailures(CompletableFuture<T> future) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        future.whenComplete((value, ex) -> {
+            if (ex != null) {
+                result.completeExceptionally(cause(ex));
+            } else {
+                result.complete(value);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * The failure a {@link CompletionException} wraps, or the failure itself. Use it to complete
+     * other futures from a callback: unlike {@link #unwrap} it never throws, so an {@link Error}
+     * cannot escape the callback and leave those futures incomplete.
+     */
+    public static Throwable cause(Throwable ex) {
+        return ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+    }
+
+    /**
+     * The failure as an unchecked exception to rethrow; an {@link Error} is thrown right away.
+     * Do not call it from a callback that still has to complete other futures, see {@link #cause}.
+     */
+    public static RuntimeException unwrap(Throwable ex) {
+        Throwable cause = cause(ex);
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new CompletionException(cause);
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.profileservice.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Load balancer that picks two instances at random and sends the request to the one with fewer
+ * requests outstanding.
+ * <p>
+ * Comparing two random instances spreads load almost as well as always picking the least loaded
+ * one, without every client piling onto the same instance. Outstanding requests are counted
+ * through the load balancer lifecycle. An instance that fails {@code failuresBeforeEjection}
+ * requests in a row, by an I/O error or a 5xx response, is ejected for {@code ejectionDuration}
+ * and then gets traffic again; while it is ejected, a fast-failing instance cannot look like the
+ * least loaded one. When every instance is ejected they are all used again, since failing open is
+ * better than refusing all requests.
+ */
+public class PowerOfTwoChoicesLoadBalancer
+        implements ReactorServiceInstanceLoadBalancer, LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+    private final String serviceId;
+    private final ObjectProvider<ServiceInstanceListSupplier> instanceSuppliers;
+    private final int failuresBeforeEjection;
+    private final long ejectionNanos;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, InstanceStats> stats = new ConcurrentHashMap<>();
+
+    public PowerOfTwoChoicesLoadBalancer(String serviceId,
+                                         ObjectProvider<ServiceInstanceListSupplier> instanceSuppliers,
+                                         int failuresBeforeEjection,
+                                         Duration ejectionDuration,
+                                         MeterRegistry meterRegistry) {
+        this.serviceId = serviceId;
+        this.instanceSuppliers = instanceSuppliers;
+        this.failuresBeforeEjection = failuresBeforeEjection;
+        this.ejectionNanos = ejectionDuration.toNanos();
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = instanceSuppliers.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request).next().map(this::choose);
+    }
+
+    Response<ServiceInstance> choose(List<ServiceInstance> instances) {
+        if (instances.isEmpty()) {
+            return new EmptyResponse();
+        }
+        long now = System.nanoTime();
+        List<ServiceInstance> candidates = instances.stream()
+                .filter(instance -> !stats(instance).isEjected(now))
+                .toList();
+        if (candidates.isEmpty()) {
+            candidates = instances;
+        }
+        if (candidates.size() == 1) {
+            return new DefaultResponse(candidates.get(0));
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServiceInstance a = candidates.get(first);
+        ServiceInstance b = candidates.get(second);
+        return new DefaultResponse(stats(b).outstanding() < stats(a).outstanding() ? b : a);
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (lbResponse.hasServer()) {
+            stats(lbResponse.getServer()).started();
+        }
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (lbResponse == null || !lbResponse.hasServer()
+                || completionContext.status() == CompletionContext.Status.DISCARD) {
+            return;
+        }
+        InstanceStats instanceStats = stats(lbResponse.getServer());
+        if (isFailure(completionContext)) {
+            instanceStats.failed(System.nanoTime());
+        } else {
+            instanceStats.succeeded();
+        }
+    }
+
+    private static boolean isFailure(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        if (completionContext.status() == CompletionContext.Status.FAILED) {
+            return true;
+        }
+        return completionContext.getClientResponse() instanceof ResponseData response
+                && response.getHttpStatus() != null
+                && response.getHttpStatus().is5xxServerError();
+    }
+
+    private InstanceStats stats(ServiceInstance instance) {
+        return stats.computeIfAbsent(instance.getHost() + ":" + instance.getPort(), InstanceStats::new);
+    }
+
+    private final class InstanceStats {
+
+        private final Counter ejections;
+        private int outstanding;
+        private int consecutiveFailures;
+        private long ejectedUntil;
+        private boolean ejected;
+
+        private InstanceStats(String instance) {
+            this.ejections = Counter.builder("user.loadbalancer.ejections")
+                    .description("Times an instance was taken out of rotation after consecutive failures")
+                    .tags("service", serviceId, "instance", instance)
+                    .register(meterRegistry);
+        }
+
+        synchronized int outstanding() {
+            return outstanding;
+        }
+
+        synchronized void started() {
+            outstanding++;
+        }
+
+        synchronized void succeeded() {
+            outstanding = Math.max(0, outstanding - 1);
+            consecutiveFailures = 0;
+        }
+
+        synchronized void failed(long now) {
+            outstanding = Math.max(0, outstanding - 1);
+            if (++consecutiveFailures >= failuresBeforeEjection && !isEjected(now)) {
+                ejected = true;
+                ejectedUntil = now + ejectionNanos;
+                consecutiveFailures = 0;
+                ejections.increment();
+            }
+        }
+
+        synchronized boolean isEjected(long now) {
+            if (ejected && now - ejectedUntil >= 0) {
+                ejected = false;
+            }
+            return ejected;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.profileservice.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Service-wide allowance of retries as a share of the successful calls in a sliding window.
+ * <p>
+ * Each successful call deposits {@code ratio} of a retry and each retry withdraws one; a retry is
+ * only allowed while the window holds enough deposits, plus a small reserve of
+ * {@code minRetriesPerSecond} so that a quiet service can still retry the odd failure. When most
+ * calls to User Service fail the deposits dry up and retries are denied instead of multiplying the
+ * load on it. The window is kept as a ring of ten slots that expire one by one.
+ */
+public class RetryBudget {
+
+    private static final int SLOTS = 10;
+
+    private final double ratio;
+    private final double reserve;
+    private final long slotNanos;
+    private final long[] slotIds = new long[SLOTS];
+    private final long[] successes = new long[SLOTS];
+    private final long[] retries = new long[SLOTS];
+    private final Counter retriesAllowed;
+    private final Counter retriesDenied;
+
+    public RetryBudget(String name, double ratio, int minRetriesPerSecond, Duration window,
+                       MeterRegistry meterRegistry) {
+        this.ratio = ratio;
+        this.reserve = minRetriesPerSecond * (window.toNanos() / 1e9);
+        this.slotNanos = Math.max(1, window.toNanos() / SLOTS);
+        Arrays.fill(slotIds, System.nanoTime() / slotNanos - SLOTS);
+        this.retriesAllowed = Counter.builder("retry.budget.retries")
+                .description("Retries checked against the retry budget")
+                .tag("name", name)
+                .tag("result", "allowed")
+                .register(meterRegistry);
+        this.retriesDenied = Counter.builder("retry.budget.retries")
+                .description("Retries checked against the retry budget")
+                .tag("name", name)
+                .tag("result", "denied")
+                .register(meterRegistry);
+    }
+
+    public synchronized void recordSuccess() {
+        successes[currentSlot()]++;
+    }
+
+    /**
+     * Withdraws one retry from the budget; returns {@code false} when the retry has to be dropped.
+     */
+    public synchronized boolean tryAcquire() {
+        int slot = currentSlot();
+        long windowSuccesses = 0;
+        long windowRetries = 0;
+        for (int i = 0; i < SLOTS; i++) {
+            windowSuccesses += successes[i];
+            windowRetries += retries[i];
+        }
+        if (windowRetries + 1 > windowSuccesses * ratio + reserve) {
+            retriesDenied.increment();
+            return false;
+        }
+        retries[slot]++;
+        retriesAllowed.increment();
+        return true;
+    }
+
+    private int currentSlot() {
+        long now = System.nanoTime() / slotNanos;
+        for (int i = 0; i < SLOTS; i++) {
+            if (now - slotIds[i] >= SLOTS) {
+                slotIds[i] = now - Math.floorMod(now - i, SLOTS);
+                successes[i] = 0;
+                retries[i] = 0;
+            }
+        }
+        return (int) Math.floorMod(now, (long) SLOTS);
+    }
+}
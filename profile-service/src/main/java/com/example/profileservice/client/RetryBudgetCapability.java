@@ -0,0 +1,42 @@
+package com.example.profileservice.client;
+
+import feign.Capability;
+import feign.Client;
+import feign.Response;
+import org.springframework.core.Ordered;
+
+/**
+ * Feign capability that fills a {@link RetryBudget} with the calls User Service actually answers.
+ * Any response below {@code 500} other than {@code 429} is a deposit, a {@code 404} included;
+ * I/O failures, overload answers and requests rejected before they are sent deposit nothing.
+ */
+public final class RetryBudgetCapability implements Capability, Ordered {
+
+    public static final int ORDER = ConcurrencyLimitCapability.ORDER + 1;
+
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final int SERVER_ERROR = 500;
+
+    private final RetryBudget retryBudget;
+
+    public RetryBudgetCapability(RetryBudget retryBudget) {
+        this.retryBudget = retryBudget;
+    }
+
+    @Override
+    public Client enrich(Client client) {
+        return (request, options) -> {
+            Response response = client.execute(request, options);
+            int status = response.status();
+            if (status < SERVER_ERROR && status != TOO_MANY_REQUESTS) {
+                retryBudget.recordSuccess();
+            }
+            return response;
+        };
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+}
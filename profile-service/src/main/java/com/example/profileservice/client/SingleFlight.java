@@ -0,0 +1,88 @@
+package com.example.profileservice.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent calls for the same key into a single execution.
+ * <p>
+ * The first caller for a key runs the call on its own thread; callers that arrive while it is
+ * still in flight wait for it and receive the same result or exception. Once the call completes
+ * the key is released, so later callers trigger a fresh execution. {@link #executeAsync} does the
+ * same for calls that already return a future, without blocking the caller; each caller gets its
+ * own dependent future, so completing or cancelling it does not affect the others.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter executedCalls;
+    private final Counter coalescedCalls;
+
+    public SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.executedCalls = Counter.builder("singleflight.calls")
+                .description("Calls handled by a single-flight group")
+                .tag("name", name)
+                .tag("outcome", "executed")
+                .register(meterRegistry);
+        this.coalescedCalls = Counter.builder("singleflight.calls")
+                .description("Calls handled by a single-flight group")
+                .tag("name", name)
+                .tag("outcome", "coalesced")
+                .register(meterRegistry);
+    }
+
+    public V execute(K key, Supplier<V> call) {
+        CompletableFuture<V> promise = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, promise);
+        if (existing != null) {
+            coalescedCalls.increment();
+            return Futures.join(existing);
+        }
+
+        executedCalls.increment();
+        try {
+            V value = call.get();
+            promise.complete(value);
+            return value;
+        } catch (RuntimeException | Error ex) {
+            promise.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, promise);
+        }
+    }
+
+    public CompletableFuture<V> executeAsync(K key, Supplier<CompletableFuture<V>> call) {
+        CompletableFuture<V> promise = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, promise);
+        if (existing != null) {
+            coalescedCalls.increment();
+            return Futures.unwrapFailures(existing);
+        }
+
+        executedCalls.increment();
+        CompletableFuture<V> result;
+        try {
+            result = call.get();
+        } catch (RuntimeException | Error ex) {
+            result = CompletableFuture.failedFuture(ex);
+        }
+        result.whenComplete((value, ex) -> {
+            try {
+                inFlight.remove(key, promise);
+            } finally {
+                if (ex != null) {
+                    promise.completeExceptionally(Futures.cause(ex));
+                } else {
+                    promise.complete(value);
+                }
+            }
+        });
+        return Futures.unwrapFailures(promise);
+    }
+}
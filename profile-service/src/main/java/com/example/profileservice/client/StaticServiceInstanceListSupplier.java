@@ -0,0 +1,42 @@
+package com.example.profileservice.client;
+
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Flux;
+
+import java.net.URI;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Fixed list of instances of one service, given by their base URLs.
+ */
+public class StaticServiceInstanceListSupplier implements ServiceInstanceListSupplier {
+
+    private final String serviceId;
+    private final List<ServiceInstance> instances;
+
+    public StaticServiceInstanceListSupplier(String serviceId, List<URI> urls) {
+        this.serviceId = serviceId;
+        this.instances = IntStream.range(0, urls.size())
+                .<ServiceInstance>mapToObj(i -> instance(serviceId, i, urls.get(i)))
+                .toList();
+    }
+
+    @Override
+    public String getServiceId() {
+        return serviceId;
+    }
+
+    @Override
+    public Flux<List<ServiceInstance>> get() {
+        return Flux.just(instances);
+    }
+
+    private static ServiceInstance instance(String serviceId, int index, URI url) {
+        boolean secure = "https".equalsIgnoreCase(url.getScheme());
+        int port = url.getPort() != -1 ? url.getPort() : (secure ? 443 : 80);
+        return new DefaultServiceInstance(serviceId + "-" + index, serviceId, url.getHost(), port, secure);
+    }
+}
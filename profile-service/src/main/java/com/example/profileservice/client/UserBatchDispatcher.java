@@ -0,0 +1,204 @@
+package com.example.profileservice.client;
+
+import com.example.profileservice.config.UserBatchProperties;
+import com.example.profileservice.dto.UserBatchDTO;
+import com.example.profileservice.dto.UserBatchRequestDTO;
+import com.example.profileservice.dto.UserDTO;
+import com.example.profileservice.exception.UserNotFoundException;
+import feign.FeignException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Collects individual user lookups made within a short window and resolves them with one
+ * {@link UserClient#getUsersByIds} call.
+ * <p>
+ * A batch is flushed when the window of its first lookup elapses or when it reaches the maximum
+ * number of distinct ids, whichever comes first. A batch that ends up with a single id uses
+ * {@link UserClient#getUserById} instead, so low traffic keeps the plain GET, which is hedged by
+ * {@link UserRequestHedger} when hedging is enabled. A batch call still running after
+ * {@code user-service.batch.timeout} fails its lookups and is interrupted.
+ */
+@Component
+public class UserBatchDispatcher implements DisposableBean {
+
+    private final UserClient userClient;
+    private final UserRequestHedger hedger;
+    private final UserBatchProperties properties;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService batchExecutor;
+    private final DistributionSummary batchSize;
+    private final Counter windowFlushes;
+    private final Counter sizeFlushes;
+
+    private final Object lock = new Object();
+    private Map<Long, List<CompletableFuture<UserDTO>>> pending = new LinkedHashMap<>();
+    private ScheduledFuture<?> scheduledFlush;
+
+    public UserBatchDispatcher(UserClient userClient,
+                               UserRequestHedger hedger,
+                               UserBatchProperties properties,
+                               MeterRegistry meterRegistry,
+                               @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.userClient = userClient;
+        this.hedger = hedger;
+        this.properties = properties;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                new CustomizableThreadFactory("user-batch-timer-"));
+        this.batchExecutor = WorkerThreads.newExecutor("user-batch-", properties.getDispatcherThreads(), virtualThreads);
+        this.batchSize = DistributionSummary.builder("user.batch.size")
+                .description("Number of distinct user ids sent per batch")
+                .baseUnit("ids")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue((double) properties.getMaxBatchSize())
+                .register(meterRegistry);
+        this.windowFlushes = Counter.builder("user.batch.flushes")
+                .description("Batches flushed, by trigger")
+                .tag("trigger", "window")
+                .register(meterRegistry);
+        this.sizeFlushes = Counter.builder("user.batch.flushes")
+                .description("Batches flushed, by trigger")
+                .tag("trigger", "size")
+                .register(meterRegistry);
+    }
+
+    public CompletableFuture<UserDTO> load(Long userId) {
+        CompletableFuture<UserDTO> future = new CompletableFuture<>();
+        Map<Long, List<CompletableFuture<UserDTO>>> full = null;
+
+        synchronized (lock) {
+            pending.computeIfAbsent(userId, id -> new ArrayList<>()).add(future);
+            if (pending.size() >= properties.getMaxBatchSize()) {
+                full = takePending();
+            } else if (scheduledFlush == null) {
+                scheduledFlush = scheduler.schedule(this::flushWindow,
+                        properties.getWindow().toNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+
+        if (full != null) {
+            sizeFlushes.increment();
+            dispatch(full);
+        }
+        return future;
+    }
+
+    private void flushWindow() {
+        Map<Long, List<CompletableFuture<UserDTO>>> batch;
+        synchronized (lock) {
+            scheduledFlush = null;
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = takePending();
+        }
+        windowFlushes.increment();
+        dispatch(batch);
+    }
+
+    private Map<Long, List<CompletableFuture<UserDTO>>> takePending() {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        Map<Long, List<CompletableFuture<UserDTO>>> batch = pending;
+        pending = new LinkedHashMap<>();
+        return batch;
+    }
+
+    private void dispatch(Map<Long, List<CompletableFuture<UserDTO>>> batch) {
+        List<Long> ids = List.copyOf(batch.keySet());
+        batchSize.record(ids.size());
+
+        CompletableFuture<Map<Long, UserDTO>> users = new CompletableFuture<>();
+        Future<?> fetch;
+        try {
+            fetch = batchExecutor.submit(() -> {
+                try {
+                    users.complete(fetch(ids));
+                } catch (Throwable ex) {
+                    users.completeExceptionally(ex);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            fetch = CompletableFuture.completedFuture(null);
+            users.completeExceptionally(ex);
+        }
+
+        Future<?> running = fetch;
+        users.orTimeout(properties.getTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((found, error) -> {
+                    if (error != null) {
+                        // stop waiting for User Service as well, not only the callers
+                        running.cancel(true);
+                    }
+                    complete(batch, found, error);
+                });
+    }
+
+    /**
+     * Completes every lookup of the batch; failures are passed on as raised, never thrown here.
+     */
+    private static void complete(Map<Long, List<CompletableFuture<UserDTO>>> batch,
+                                 Map<Long, UserDTO> users, Throwable error) {
+        Throwable failure = error == null ? null : Futures.cause(error);
+        batch.forEach((id, waiting) -> {
+            if (failure != null) {
+                waiting.forEach(future -> future.completeExceptionally(failure));
+                return;
+            }
+            UserDTO user = users.get(id);
+            if (user == null) {
+                UserNotFoundException notFound = new UserNotFoundException(id);
+                waiting.forEach(future -> future.completeExceptionally(notFound));
+            } else {
+                waiting.forEach(future -> future.complete(user));
+            }
+        });
+    }
+
+    private Map<Long, UserDTO> fetch(List<Long> ids) {
+        if (ids.size() == 1) {
+            Long id = ids.get(0);
+            try {
+                UserDTO user = hedger.isEnabled()
+                        ? Futures.join(hedger.execute(() -> userClient.getUserById(id)))
+                        : userClient.getUserById(id);
+                return Map.of(id, user);
+            } catch (FeignException.NotFound ex) {
+                return Map.of();
+            }
+        }
+
+        UserBatchDTO response = userClient.getUsersByIds(new UserBatchRequestDTO(ids));
+        return response.getUsers().stream()
+                .collect(Collectors.toMap(UserDTO::getId, Function.identity()));
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+        batchExecutor.shutdownNow();
+    }
+}
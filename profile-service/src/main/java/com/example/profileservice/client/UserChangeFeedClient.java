@@ -0,0 +1,30 @@
+package com.example.profileservice.client;
+
+import com.example.profileservice.config.UserChangeFeedClientConfig;
+import com.example.profileservice.dto.UserChangesDTO;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+/**
+ * Long-polling reader of the User Service change feed, see {@link UserReplicaSyncer}.
+ * <p>
+ * Load balanced over the same instances as {@link UserClient}, but a request is held open by
+ * User Service for up to {@code waitSeconds}, so it runs without the deadline, bulkhead and
+ * concurrency limit of {@link UserClient} requests, see {@link UserChangeFeedClientConfig}.
+ */
+@FeignClient(
+        name = "user-service",
+        contextId = "userChangeFeed",
+        configuration = UserChangeFeedClientConfig.class
+)
+public interface UserChangeFeedClient {
+
+    @GetMapping("/users/changes")
+    UserChangesDTO getChanges(@RequestParam("since") long since,
+                              @RequestParam("limit") int limit,
+                              @RequestParam("waitSeconds") long waitSeconds);
+
+    @GetMapping("/users/changes/head")
+    UserChangesDTO getHead();
+}
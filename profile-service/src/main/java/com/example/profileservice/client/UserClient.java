@@ -1,18 +1,37 @@
 package com.example.profileservice.client;
 
 
+import com.example.profileservice.config.UserClientCodecConfig;
+import com.example.profileservice.dto.UserBatchDTO;
+import com.example.profileservice.dto.UserBatchRequestDTO;
 import com.example.profileservice.dto.UserDTO;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 
 @FeignClient(
         name = "user-service",
-        url = "${user-service.url}"
+        configuration = UserClientCodecConfig.class
 )
 public interface UserClient {
 
     @GetMapping("/users/{id}")
     UserDTO getUserById(@PathVariable("id") Long id);
-}
 
+    /**
+     * Conditional variant of {@link #getUserById}. A 304 surfaces as a {@code FeignException}
+     * with that status, see {@link AsyncUserClient#getUserByIdIfNoneMatch}.
+     */
+    @GetMapping("/users/{id}")
+    ResponseEntity<UserDTO> getUserByIdIfNoneMatch(
+            @PathVariable("id") Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String etag);
+
+    @PostMapping("/users/batch-get")
+    UserBatchDTO getUsersByIds(@RequestBody UserBatchRequestDTO request);
+}
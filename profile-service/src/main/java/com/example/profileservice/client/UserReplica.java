@@ -0,0 +1,129 @@
+package com.example.profileservice.client;
+
+import com.example.profileservice.config.UserReplicaProperties;
+import com.example.profileservice.dto.UserDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Local read-only copy of the users this service reads, kept current by {@link UserReplicaSyncer}
+ * from the User Service change feed.
+ * <p>
+ * Only users that were asked for are replicated. A read that misses registers its user before it
+ * is fetched from User Service; from then on changes to that user in the feed are applied, and
+ * the fetched copy is only stored if the feed has not stored a newer one in the meantime.
+ * <p>
+ * The replica serves reads only while it is in sync: the syncer has read the feed up to its end
+ * and its last successful read is no older than {@code user-service.replica.max-staleness}.
+ * Otherwise every read misses and goes to User Service.
+ */
+@Component
+public class UserReplica {
+
+    private final boolean enabled;
+    private final int maximumSize;
+    private final long maxStalenessNanos;
+    private final Set<Long> tracked = ConcurrentHashMap.newKeySet();
+    private final ConcurrentMap<Long, UserDTO> users = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    private volatile boolean caughtUp;
+    private volatile long lastSyncedNanos;
+
+    public UserReplica(UserReplicaProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.maximumSize = properties.getMaximumSize();
+        this.maxStalenessNanos = properties.getMaxStaleness().toNanos();
+        this.hits = Counter.builder("user.replica.reads")
+                .description("User reads answered by the local replica or passed on to User Service")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("user.replica.reads")
+                .description("User reads answered by the local replica or passed on to User Service")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("user.replica.size", users, ConcurrentMap::size)
+                .description("Users held in the local replica")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The replicated user, or empty when the replica does not hold it or is out of sync. On a miss
+     * the user is registered for replication, so call this before fetching it.
+     */
+    public Optional<UserDTO> find(Long userId) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        UserDTO user = users.get(userId);
+        if (user != null && isInSync()) {
+            hits.increment();
+            return Optional.of(user);
+        }
+        misses.increment();
+        track(userId);
+        return Optional.empty();
+    }
+
+    /**
+     * Registers a user for replication ahead of fetching it, see {@link #offer}.
+     */
+    public void track(Long userId) {
+        if (enabled && tracked.size() < maximumSize) {
+            tracked.add(userId);
+        }
+    }
+
+    /**
+     * Stores a user fetched from User Service, unless the change feed already stored it.
+     */
+    public void offer(UserDTO user) {
+        if (tracked.contains(user.getId())) {
+            users.putIfAbsent(user.getId(), user);
+        }
+    }
+
+    /**
+     * Applies users read from the change feed; users that were never asked for are skipped.
+     */
+    public void apply(List<UserDTO> changed) {
+        for (UserDTO user : changed) {
+            if (tracked.contains(user.getId())) {
+                users.put(user.getId(), user);
+            }
+        }
+    }
+
+    /**
+     * Records a successful read of the change feed.
+     *
+     * @param reachedEnd whether the read returned everything up to the end of the feed
+     */
+    public void synced(boolean reachedEnd) {
+        caughtUp = reachedEnd;
+        lastSyncedNanos = System.nanoTime();
+    }
+
+    public boolean isInSync() {
+        return caughtUp && System.nanoTime() - lastSyncedNanos < maxStalenessNanos;
+    }
+
+    public void evict(Long userId) {
+        tracked.remove(userId);
+        users.remove(userId);
+    }
+
+    public void evictAll() {
+        tracked.clear();
+        users.clear();
+    }
+}
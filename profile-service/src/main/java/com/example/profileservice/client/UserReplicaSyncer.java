@@ -0,0 +1,91 @@
+package com.example.profileservice.client;
+
+import com.example.profileservice.config.UserReplicaProperties;
+import com.example.profileservice.dto.UserChangesDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps {@link UserReplica} current by long-polling the User Service change feed on a background
+ * thread.
+ * <p>
+ * The replica only holds users read since this service started, so the syncer starts at the head
+ * of the feed instead of replaying it, and drops what the replica stored before the head was read,
+ * as changes made to those users before the head are never applied. Each request then resumes at
+ * the cursor of the previous response. User Service answers as soon as there are changes, or with
+ * none after {@code user-service.replica.poll-wait}, so an idle feed costs one request per wait
+ * and a change reaches the replica about as fast as a request round trip. A failed request is
+ * retried after {@code user-service.replica.retry-interval}; the replica stops serving reads once
+ * it has been out of sync for longer than its maximum staleness.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "user-service.replica.enabled", matchIfMissing = true)
+public class UserReplicaSyncer implements SmartLifecycle {
+
+    private final UserChangeFeedClient changeFeedClient;
+    private final UserReplica replica;
+    private final UserReplicaProperties properties;
+    private volatile Thread worker;
+    // negative until the head of the feed has been read
+    private long cursor = -1;
+
+    public UserReplicaSyncer(UserChangeFeedClient changeFeedClient,
+                             UserReplica replica,
+                             UserReplicaProperties properties) {
+        this.changeFeedClient = changeFeedClient;
+        this.replica = replica;
+        this.properties = properties;
+    }
+
+    @Override
+    public void start() {
+        worker = Thread.ofPlatform()
+                .name("user-replica-sync")
+                .daemon()
+                .start(this::run);
+    }
+
+    @Override
+    public void stop() {
+        Thread thread = worker;
+        worker = null;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return worker != null;
+    }
+
+    private void run() {
+        while (worker == Thread.currentThread()) {
+            try {
+                syncOnce();
+            } catch (RuntimeException ex) {
+                log.warn("Could not read the user change feed after cursor {}: {}", cursor, ex.getMessage());
+                try {
+                    Thread.sleep(properties.getRetryInterval());
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    void syncOnce() {
+        if (cursor < 0) {
+            cursor = changeFeedClient.getHead().getCursor();
+            replica.evictAll();
+        }
+        UserChangesDTO changes = changeFeedClient.getChanges(
+                cursor, properties.getBatchSize(), properties.getPollWait().toSeconds());
+        replica.apply(changes.getUsers());
+        cursor = changes.getCursor();
+        replica.synced(changes.getUsers().size() < properties.getBatchSize());
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.profileservice.client;
+
+import com.example.profileservice.config.UserHedgingProperties;
+import feign.RetryableException;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Hedges idempotent User Service calls.
+ * <p>
+ * The call is started once; if it has not answered after the hedge delay, the same call is sent
+ * again and the first answer wins. The delay is either fixed or the observed p95 latency, so only
+ * the slowest few percent of calls are duplicated. A transport failure ({@link RetryableException})
+ * of one attempt waits for the other; any other answer, including a not-found, completes the call.
+ * <p>
+ * The losing attempt is cancelled, but that only interrupts its worker thread: an attempt still
+ * waiting for a bulkhead permit gives up, while one already reading from the socket keeps its
+ * connection, bulkhead permit and concurrency-limit slot until User Service answers or the read
+ * times out. Every hedge sent therefore costs User Service a full request, and a token bucket caps
+ * the hedges sent per second so a slow User Service never receives twice the load.
+ */
+@Component
+public class UserRequestHedger implements DisposableBean {
+
+    private static final long MIN_SAMPLES = 20;
+    private static final long DELAY_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final UserHedgingProperties properties;
+    private final ExecutorService executor;
+    private final ScheduledExecutorService scheduler;
+    private final TokenBucket budget;
+    private final Timer latency;
+    private final Counter hedgesSent;
+    private final Counter hedgesRejected;
+    private final Counter hedgeWins;
+
+    private volatile long delayNanos;
+    private volatile long delayComputedAt;
+
+    public UserRequestHedger(UserHedgingProperties properties,
+                             MeterRegistry meterRegistry,
+                             @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.properties = properties;
+        this.executor = WorkerThreads.newExecutor("user-hedge-", properties.getThreads(), virtualThreads);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                new CustomizableThreadFactory("user-hedge-timer-"));
+        this.budget = new TokenBucket(properties.getBudgetPerSecond(), properties.getBudgetPerSecond());
+        this.latency = Timer.builder("user.hedging.latency")
+                .description("Latency of hedged User Service calls that answered")
+                .publishPercentiles(0.95)
+                .distributionStatisticExpiry(Duration.ofMinutes(1))
+                .register(meterRegistry);
+        this.hedgesSent = Counter.builder("user.hedging.hedges")
+                .description("Hedge requests, by whether the budget allowed them")
+                .tag("result", "sent")
+                .register(meterRegistry);
+        this.hedgesRejected = Counter.builder("user.hedging.hedges")
+                .description("Hedge requests, by whether the budget allowed them")
+                .tag("result", "rejected")
+                .register(meterRegistry);
+        this.hedgeWins = Counter.builder("user.hedging.wins")
+                .description("Hedged calls answered by the hedge rather than the first request")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public <T> CompletableFuture<T> execute(Supplier<T> call) {
+        HedgedCall<T> hedgedCall = new HedgedCall<>(call);
+        hedgedCall.attempt(false);
+        if (hedgedCall.result.isDone()) {
+            // failed at once, e.g. rejected by an executor that is shutting down
+            return hedgedCall.result;
+        }
+
+        ScheduledFuture<?> hedgeTimer = scheduler.schedule(hedgedCall::hedge,
+                currentDelay().toNanos(), TimeUnit.NANOSECONDS);
+        hedgedCall.result.whenComplete((value, ex) -> {
+            hedgeTimer.cancel(false);
+            hedgedCall.cancelAttempts();
+        });
+        return hedgedCall.result;
+    }
+
+    Duration currentDelay() {
+        if (properties.getDelay() != null) {
+            return properties.getDelay();
+        }
+        if (latency.count() < MIN_SAMPLES) {
+            return properties.getInitialDelay();
+        }
+
+        long now = System.nanoTime();
+        if (now - delayComputedAt > DELAY_REFRESH_NANOS) {
+            delayNanos = Math.max(properties.getMinDelay().toNanos(), observedP95Nanos());
+            delayComputedAt = now;
+        }
+        return Duration.ofNanos(delayNanos);
+    }
+
+    private long observedP95Nanos() {
+        for (ValueAtPercentile percentile : latency.takeSnapshot().percentileValues()) {
+            if (percentile.percentile() == 0.95) {
+                return (long) percentile.value(TimeUnit.NANOSECONDS);
+            }
+        }
+        return properties.getInitialDelay().toNanos();
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    private final class HedgedCall<T> {
+
+        private final Supplier<T> call;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final List<Future<?>> attempts = new CopyOnWriteArrayList<>();
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicBoolean answered = new AtomicBoolean();
+
+        private HedgedCall(Supplier<T> call) {
+            this.call = call;
+        }
+
+        private void attempt(boolean hedge) {
+            outstanding.incrementAndGet();
+            try {
+                attempts.add(executor.submit(() -> {
+                    long start = System.nanoTime();
+                    try {
+                        T value = call.get();
+                        latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        // count the win before completing, so callers never observe the answer first
+                        if (answered.compareAndSet(false, true)) {
+                            if (hedge) {
+                                hedgeWins.increment();
+                            }
+                            result.complete(value);
+                        }
+                    } catch (Throwable ex) {
+                        failed(ex);
+                    }
+                }));
+            } catch (RejectedExecutionException ex) {
+                failed(ex);
+            }
+            if (result.isDone()) {
+                cancelAttempts();
+            }
+        }
+
+        private void failed(Throwable ex) {
+            boolean lastAttempt = outstanding.decrementAndGet() == 0;
+            if (lastAttempt || !isTransient(ex)) {
+                result.completeExceptionally(ex);
+            }
+        }
+
+        // a failed or rejected attempt is only final once the other one has failed as well
+        private static boolean isTransient(Throwable ex) {
+            return ex instanceof RetryableException
+                    || ex instanceof ConcurrencyLimitExceededException
+                    || ex instanceof BulkheadFullException
+                    || ex instanceof RejectedExecutionException;
+        }
+
+        private void hedge() {
+            if (result.isDone()) {
+                return;
+            }
+            if (!budget.tryAcquire()) {
+                hedgesRejected.increment();
+                return;
+            }
+            hedgesSent.increment();
+            attempt(true);
+        }
+
+        private void cancelAttempts() {
+            attempts.forEach(attempt -> attempt.cancel(true));
+        }
+    }
+}
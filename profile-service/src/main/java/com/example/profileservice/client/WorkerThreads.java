@@ -0,0 +1,24 @@
+package com.example.profileservice.client;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class WorkerThreads {
+
+    /**
+     * Creates the executor for blocking User Service calls: a fixed pool of platform threads, or
+     * one virtual thread per task when {@code spring.threads.virtual.enabled} is set, in which
+     * case the pool size is ignored.
+     */
+    public static ExecutorService newExecutor(String namePrefix, int platformThreads, boolean virtualThreads) {
+        if (virtualThreads) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(namePrefix, 0).factory());
+        }
+        return Executors.newFixedThreadPool(platformThreads, new CustomizableThreadFactory(namePrefix));
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.profileservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the non-blocking user lookups behind {@code GET /profiles/{id}/with-user}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "user-service.async")
+public class UserAsyncProperties {
+
+    /**
+     * Number of threads that run single user calls when batching is disabled; request threads
+     * are released while these calls are in flight.
+     */
+    private int threads = 16;
+}
@@ -0,0 +1,49 @@
+package com.example.profileservice.config;
+
+import com.example.profileservice.dto.UserBatchRequestDTO;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Settings for micro-batching individual user lookups into {@code POST /users/batch-get} calls.
+ */
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "user-service.batch")
+public class UserBatchProperties {
+
+    /**
+     * Whether lookups are batched at all; when disabled every lookup is a single GET.
+     */
+    private boolean enabled = true;
+
+    /**
+     * How long the first lookup of a batch waits for others to join it.
+     */
+    private Duration window = Duration.ofMillis(2);
+
+    /**
+     * Number of distinct ids that flushes a batch before the window has elapsed; at most
+     * {@value UserBatchRequestDTO#MAX_IDS}, the most User Service accepts in one call.
+     */
+    @Positive
+    @Max(UserBatchRequestDTO.MAX_IDS)
+    private int maxBatchSize = 100;
+
+    /**
+     * Upper bound for a single batch call; waiting lookups fail once it is exceeded.
+     */
+    private Duration timeout = Duration.ofSeconds(2);
+
+    /**
+     * Number of threads that execute batch calls against User Service.
+     */
+    private int dispatcherThreads = 8;
+}
@@ -0,0 +1,31 @@
+package com.example.profileservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the bulkhead around every {@code UserClient} request. The limits are those of the
+ * {@code userService} instance under {@code resilience4j.bulkhead} or
+ * {@code resilience4j.thread-pool-bulkhead}, depending on the type.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "user-service.bulkhead")
+public class UserBulkheadProperties {
+
+    /**
+     * Whether requests to User Service are limited by a bulkhead at all.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Kind of bulkhead: a semaphore on the calling thread or a dedicated thread pool.
+     */
+    private Type type = Type.SEMAPHORE;
+
+    public enum Type {
+        SEMAPHORE,
+        THREAD_POOL
+    }
+}
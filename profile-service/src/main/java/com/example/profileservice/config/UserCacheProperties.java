@@ -0,0 +1,50 @@
+package com.example.profileservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the local cache of users fetched from User Service.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "user-service.cache")
+public class UserCacheProperties {
+
+    /**
+     * Whether fetched users are cached at all.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Maximum number of cached users; the least valuable entries are evicted beyond it.
+     */
+    private long maximumSize = 10_000;
+
+    /**
+     * Time after which a cached user is dropped and has to be fetched again.
+     */
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+
+    /**
+     * Soft TTL: time after which a cached user is reloaded in the background on its next read, so
+     * hot entries are refreshed before they expire.
+     */
+    private Duration refreshAfterWrite = Duration.ofMinutes(1);
+
+    /**
+     * Whether background reloads are conditional GETs with the entry's ETag, so an unchanged user
+     * costs a 304 without a body instead of a full response. When disabled, reloads go through the
+     * same batched lookup as misses.
+     */
+    private boolean revalidate = true;
+
+    /**
+     * Stale-if-error: how long after it was fetched a user may still be served when User Service
+     * fails, even once the cache entry has expired. Zero turns this off.
+     */
+    private Duration staleIfError = Duration.ofHours(1);
+}
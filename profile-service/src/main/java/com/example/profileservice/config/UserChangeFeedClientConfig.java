@@ -0,0 +1,40 @@
+package com.example.profileservice.config;
+
+import feign.Request;
+import org.springframework.cloud.openfeign.clientconfig.FeignClientConfigurer;
+import org.springframework.context.annotation.Bean;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Feign configuration of {@code UserChangeFeedClient}.
+ * <p>
+ * The client does not inherit beans from the application context, so the capabilities meant for
+ * short {@code UserClient} lookups, a 2s deadline among them, are not applied to requests that
+ * User Service holds open for a long poll. Its read timeout covers that wait instead. Not
+ * annotated with {@code @Configuration} on purpose, so it is only picked up through
+ * {@code @FeignClient}.
+ */
+public class UserChangeFeedClientConfig {
+
+    private static final long CONNECT_TIMEOUT_MILLIS = 2_000;
+    private static final long READ_TIMEOUT_MARGIN_MILLIS = 10_000;
+
+    @Bean
+    public FeignClientConfigurer changeFeedClientConfigurer() {
+        return new FeignClientConfigurer() {
+            @Override
+            public boolean inheritParentConfiguration() {
+                return false;
+            }
+        };
+    }
+
+    @Bean
+    public Request.Options changeFeedRequestOptions(UserReplicaProperties properties) {
+        return new Request.Options(
+                CONNECT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS,
+                properties.getPollWait().toMillis() + READ_TIMEOUT_MARGIN_MILLIS, TimeUnit.MILLISECONDS,
+                true);
+    }
+}
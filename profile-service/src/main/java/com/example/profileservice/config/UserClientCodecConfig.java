@@ -0,0 +1,74 @@
+package com.example.profileservice.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import feign.RequestInterceptor;
+import feign.codec.Decoder;
+import feign.codec.EncodeException;
+import feign.codec.Encoder;
+import feign.optionals.OptionalDecoder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.openfeign.support.ResponseEntityDecoder;
+import org.springframework.cloud.openfeign.support.SpringDecoder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.util.List;
+
+/**
+ * Feign configuration of {@code UserClient} for the Smile wire format.
+ * <p>
+ * Request bodies are sent as Smile and responses are asked for as Smile with JSON as the fallback,
+ * so the client keeps working against a User Service that only speaks JSON. Only this client is
+ * affected; Profile Service's own endpoints keep their JSON converters. Not annotated with
+ * {@code @Configuration} on purpose, so it is only picked up through {@code @FeignClient}.
+ */
+@ConditionalOnProperty(value = "user-service.transport.wire-format", havingValue = "smile", matchIfMissing = true)
+public class UserClientCodecConfig {
+
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    private static final String ACCEPT_SMILE_OR_JSON = APPLICATION_SMILE + ", " + MediaType.APPLICATION_JSON + ";q=0.5";
+
+    @Bean
+    public Decoder feignDecoder(Jackson2ObjectMapperBuilder objectMapperBuilder, ObjectMapper objectMapper) {
+        HttpMessageConverters converters = new HttpMessageConverters(false, List.of(
+                new MappingJackson2SmileHttpMessageConverter(objectMapperBuilder.factory(new SmileFactory()).build()),
+                new MappingJackson2HttpMessageConverter(objectMapper)));
+        return new OptionalDecoder(new ResponseEntityDecoder(new SpringDecoder(() -> converters)));
+    }
+
+    /**
+     * Writes the body with the Smile mapper directly: a body with a charset would be treated as
+     * text by the HTTP client and corrupted, which is what the JSON-oriented SpringEncoder does
+     * for Smile.
+     */
+    @Bean
+    public Encoder feignEncoder(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        ObjectMapper smileMapper = objectMapperBuilder.factory(new SmileFactory()).build();
+        return (object, bodyType, template) -> {
+            try {
+                template.body(smileMapper.writerFor(smileMapper.constructType(bodyType)).writeValueAsBytes(object), null);
+            } catch (JsonProcessingException ex) {
+                throw new EncodeException("Could not write " + bodyType + " as Smile", ex);
+            }
+            template.removeHeader(HttpHeaders.CONTENT_TYPE);
+            template.header(HttpHeaders.CONTENT_TYPE, APPLICATION_SMILE.toString());
+        };
+    }
+
+    @Bean
+    public RequestInterceptor smileAcceptInterceptor() {
+        return template -> {
+            if (!template.headers().containsKey(HttpHeaders.ACCEPT)) {
+                template.header(HttpHeaders.ACCEPT, ACCEPT_SMILE_OR_JSON);
+            }
+        };
+    }
+}
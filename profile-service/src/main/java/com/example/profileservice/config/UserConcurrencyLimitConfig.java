@@ -0,0 +1,37 @@
+package com.example.profileservice.config;
+
+import com.example.profileservice.client.AdaptiveConcurrencyLimit;
+import com.example.profileservice.client.ConcurrencyLimitCapability;
+import feign.Capability;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Adaptive concurrency limit on every {@code UserClient} request.
+ * <p>
+ * Like the bulkhead, the limit wraps the Feign transport and so covers every kind of call. It
+ * replaces a hand-tuned cap as the working limit: it grows while User Service answers at its
+ * baseline latency and shrinks once requests start to queue there, whatever the size of the
+ * deployment behind it. Requests over the limit are rejected at once and end in the caller's
+ * fallback without being retried.
+ */
+@Configuration
+@ConditionalOnProperty(value = "user-service.concurrency-limit.enabled", matchIfMissing = true)
+public class UserConcurrencyLimitConfig {
+
+    private static final String INSTANCE = "userService";
+
+    @Bean
+    public AdaptiveConcurrencyLimit userServiceConcurrencyLimit(UserConcurrencyLimitProperties properties,
+                                                                MeterRegistry meterRegistry) {
+        return new AdaptiveConcurrencyLimit(INSTANCE, properties.getInitialLimit(), properties.getMinLimit(),
+                properties.getMaxLimit(), properties.getBaselineResetInterval(), meterRegistry);
+    }
+
+    @Bean
+    public Capability userServiceConcurrencyLimitCapability(AdaptiveConcurrencyLimit userServiceConcurrencyLimit) {
+        return new ConcurrencyLimitCapability(userServiceConcurrencyLimit);
+    }
+}
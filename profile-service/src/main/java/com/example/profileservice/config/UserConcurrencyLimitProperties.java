@@ -0,0 +1,43 @@
+package com.example.profileservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the adaptive limit on in-flight requests to User Service. The limit moves between
+ * {@code minLimit} and {@code maxLimit} with the latency User Service answers with.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "user-service.concurrency-limit")
+public class UserConcurrencyLimitProperties {
+
+    /**
+     * Whether in-flight requests to User Service are limited adaptively at all.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Limit to start from before any latency has been observed.
+     */
+    private int initialLimit = 20;
+
+    /**
+     * Lowest the limit can shrink to, so a few requests always get through to notice recovery.
+     */
+    private int minLimit = 4;
+
+    /**
+     * Highest the limit can grow to.
+     */
+    private int maxLimit = 200;
+
+    /**
+     * How long the lowest observed latency is used as the no-load baseline before it is measured
+     * again.
+     */
+    private Duration baselineResetInterval = Duration.ofMinutes(1);
+}
@@ -0,0 +1,27 @@
+package com.example.profileservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the time budget sent with every {@code UserClient} request. User Service drops
+ * requests whose budget has run out and fits its queries into the rest.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "user-service.deadline")
+public class UserDeadlineProperties {
+
+    /**
+     * Whether requests carry a time budget at all.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Time budget of one request to User Service; also its read timeout.
+     */
+    private Duration timeout = Duration.ofSeconds(2);
+}
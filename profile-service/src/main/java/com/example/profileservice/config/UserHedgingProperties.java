@@ -0,0 +1,49 @@
+package com.example.profileservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for hedging single user GETs: when the first request is slow, a second one is sent and
+ * whichever answers first is used.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "user-service.hedging")
+public class UserHedgingProperties {
+
+    /**
+     * Whether slow GETs are hedged at all.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Fixed delay before the hedge is sent; when unset the observed p95 latency is used.
+     */
+    private Duration delay;
+
+    /**
+     * Lower bound for the p95-derived delay, so a warm cache of fast responses does not hedge
+     * every request.
+     */
+    private Duration minDelay = Duration.ofMillis(10);
+
+    /**
+     * Delay used until enough latencies have been observed to estimate the p95.
+     */
+    private Duration initialDelay = Duration.ofMillis(50);
+
+    /**
+     * Hedges that may be sent per second; hedges beyond the budget are skipped. Losing attempts
+     * run until they are answered, so this is also the extra request rate User Service may see.
+     */
+    private int budgetPerSecond = 10;
+
+    /**
+     * Number of threads that run hedged requests; ignored in virtual-thread mode.
+     */
+    private int threads = 16;
+}
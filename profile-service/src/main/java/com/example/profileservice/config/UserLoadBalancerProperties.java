@@ -0,0 +1,35 @@
+package com.example.profileservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings for client-side load balancing of {@code UserClient} across User Service instances.
+ * How often instances are health checked is set under {@code spring.cloud.loadbalancer.health-check}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "user-service.load-balancer")
+public class UserLoadBalancerProperties {
+
+    /**
+     * Base URLs of the User Service instances requests are spread over.
+     */
+    private List<URI> instances = new ArrayList<>();
+
+    /**
+     * Consecutive failed requests, I/O errors or 5xx responses, after which an instance is ejected.
+     */
+    private int failuresBeforeEjection = 3;
+
+    /**
+     * How long an ejected instance gets no requests before it is tried again.
+     */
+    private Duration ejectionDuration = Duration.ofSeconds(30);
+}
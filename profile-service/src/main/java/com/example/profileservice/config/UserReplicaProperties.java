@@ -0,0 +1,47 @@
+package com.example.profileservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the local replica of users kept up to date from the User Service change feed.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "user-service.replica")
+public class UserReplicaProperties {
+
+    /**
+     * Whether users are replicated locally and served from the replica.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Maximum number of replicated users; users read beyond it are not replicated.
+     */
+    private int maximumSize = 100_000;
+
+    /**
+     * Most changes read from the feed per request.
+     */
+    private int batchSize = 500;
+
+    /**
+     * How long User Service holds a request for changes while there are none.
+     */
+    private Duration pollWait = Duration.ofSeconds(30);
+
+    /**
+     * How long the replica keeps serving reads after its last successful sync. Must be longer
+     * than {@code poll-wait}, which is how long a sync may take when nothing changes.
+     */
+    private Duration maxStaleness = Duration.ofSeconds(60);
+
+    /**
+     * Pause before reading the feed again after a failed request.
+     */
+    private Duration retryInterval = Duration.ofSeconds(5);
+}
@@ -0,0 +1,59 @@
+package com.example.profileservice.config;
+
+import com.example.profileservice.client.RetryBudget;
+import com.example.profileservice.client.RetryBudgetCapability;
+import feign.Capability;
+import io.github.resilience4j.common.retry.configuration.CommonRetryConfigurationProperties.InstanceProperties;
+import io.github.resilience4j.common.retry.configuration.RetryConfigCustomizer;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.spring6.retry.configure.RetryConfigurationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Puts the {@code userService} retry of {@link com.example.profileservice.service.ProfileService}
+ * on a {@link RetryBudget}.
+ * <p>
+ * Calls that User Service answers fill the budget through a Feign capability on
+ * {@code UserClient}, so lookups served from the cache or the replica behind the same circuit
+ * breaker do not. Before each retry the retry's interval function asks the budget, and when it is
+ * spent the retry ends with the last failure, which then goes to the usual fallback.
+ */
+@Configuration
+@ConditionalOnProperty(value = "user-service.retry-budget.enabled", matchIfMissing = true)
+public class UserRetryBudgetConfig {
+
+    private static final String INSTANCE = "userService";
+
+    // ends the retries with the last failure: the async retry gives up on delays below 1 ms and
+    // the blocking retry rethrows the failure when the sleep rejects the negative interval
+    private static final long STOP_RETRYING = -1L;
+
+    @Bean
+    public RetryBudget userServiceRetryBudget(UserRetryBudgetProperties properties, MeterRegistry meterRegistry) {
+        return new RetryBudget(INSTANCE, properties.getRatio(), properties.getMinRetriesPerSecond(),
+                properties.getWindow(), meterRegistry);
+    }
+
+    @Bean
+    public RetryConfigCustomizer userServiceRetryBudgetCustomizer(RetryBudget retryBudget,
+                                                                  RetryConfigurationProperties retryProperties) {
+        // replaces the fixed wait set by waitDuration, so it is looked up and kept here
+        long waitMillis = Optional.ofNullable(retryProperties.getInstances().get(INSTANCE))
+                .map(InstanceProperties::getWaitDuration)
+                .orElse(Duration.ofMillis(RetryConfig.DEFAULT_WAIT_DURATION))
+                .toMillis();
+        return RetryConfigCustomizer.of(INSTANCE, builder -> builder.intervalBiFunction(
+                (attempt, outcome) -> retryBudget.tryAcquire() ? waitMillis : STOP_RETRYING));
+    }
+
+    @Bean
+    public Capability userServiceRetryBudgetCapability(RetryBudget retryBudget) {
+        return new RetryBudgetCapability(retryBudget);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.profileservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the retry budget of the {@code userService} retry: retries may only use a share of
+ * the successful calls to User Service, and are dropped once that share is spent.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "user-service.retry-budget")
+public class UserRetryBudgetProperties {
+
+    /**
+     * Whether retries are limited by the budget at all.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Retries allowed per successful call within the window, e.g. 0.2 for one retry per five
+     * successful calls.
+     */
+    private double ratio = 0.2;
+
+    /**
+     * Retries per second that are always allowed, so the odd failure is still retried when there
+     * is little traffic.
+     */
+    private int minRetriesPerSecond = 5;
+
+    /**
+     * Sliding window over which successful calls and retries are counted.
+     */
+    private Duration window = Duration.ofSeconds(10);
+}
@@ -0,0 +1,78 @@
+package com.example.profileservice.config;
+
+import com.example.profileservice.client.BulkheadCapability;
+import feign.Capability;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Bulkhead around every {@code UserClient} request.
+ * <p>
+ * The bulkhead wraps the Feign transport, so single lookups, batches, hedges and revalidations
+ * all share the same limit, and a slow User Service can only hold that many threads. A rejected
+ * request fails right away with a non-retryable exception and ends in the caller's fallback.
+ */
+@Configuration
+@ConditionalOnProperty(value = "user-service.bulkhead.enabled", matchIfMissing = true)
+public class UserServiceBulkheadConfig {
+
+    private static final String INSTANCE = "userService";
+
+    @Bean
+    public Capability userServiceBulkhead(UserBulkheadProperties properties,
+                                          BulkheadRegistry bulkheadRegistry,
+                                          ThreadPoolBulkheadRegistry threadPoolBulkheadRegistry) {
+        if (properties.getType() == UserBulkheadProperties.Type.THREAD_POOL) {
+            return BulkheadCapability.threadPool(threadPoolBulkheadRegistry.bulkhead(INSTANCE));
+        }
+        return BulkheadCapability.semaphore(bulkheadRegistry.bulkhead(INSTANCE));
+    }
+
+    @Bean
+    public MeterBinder userServiceBulkheadMetrics(UserBulkheadProperties properties,
+                                                  BulkheadRegistry bulkheadRegistry,
+                                                  ThreadPoolBulkheadRegistry threadPoolBulkheadRegistry) {
+        if (properties.getType() == UserBulkheadProperties.Type.THREAD_POOL) {
+            ThreadPoolBulkhead bulkhead = threadPoolBulkheadRegistry.bulkhead(INSTANCE);
+            return registry -> {
+                Gauge.builder("user.bulkhead.in.use", bulkhead, b -> b.getMetrics().getActiveThreadCount())
+                        .description("Requests to User Service running on a bulkhead thread")
+                        .tags("name", INSTANCE, "type", "thread-pool")
+                        .register(registry);
+                Gauge.builder("user.bulkhead.queued", bulkhead, b -> b.getMetrics().getQueueDepth())
+                        .description("Requests to User Service waiting for a bulkhead thread")
+                        .tags("name", INSTANCE, "type", "thread-pool")
+                        .register(registry);
+                Counter rejections = rejectionCounter(registry, "thread-pool");
+                bulkhead.getEventPublisher().onCallRejected(event -> rejections.increment());
+            };
+        }
+
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead(INSTANCE);
+        return registry -> {
+            Gauge.builder("user.bulkhead.in.use", bulkhead, b ->
+                            b.getMetrics().getMaxAllowedConcurrentCalls() - b.getMetrics().getAvailableConcurrentCalls())
+                    .description("Requests to User Service holding a bulkhead permit")
+                    .tags("name", INSTANCE, "type", "semaphore")
+                    .register(registry);
+            Counter rejections = rejectionCounter(registry, "semaphore");
+            bulkhead.getEventPublisher().onCallRejected(event -> rejections.increment());
+        };
+    }
+
+    private static Counter rejectionCounter(MeterRegistry registry, String type) {
+        return Counter.builder("user.bulkhead.rejections")
+                .description("Requests to User Service rejected by a full bulkhead")
+                .tags("name", INSTANCE, "type", type)
+                .register(registry);
+    }
+}
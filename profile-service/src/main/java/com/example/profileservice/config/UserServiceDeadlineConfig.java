@@ -0,0 +1,21 @@
+package com.example.profileservice.config;
+
+import com.example.profileservice.client.DeadlineCapability;
+import feign.Capability;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Deadline propagation on every {@code UserClient} request: each request is sent with its
+ * remaining time budget, and the same budget bounds how long the client waits for it.
+ */
+@Configuration
+@ConditionalOnProperty(value = "user-service.deadline.enabled", matchIfMissing = true)
+public class UserServiceDeadlineConfig {
+
+    @Bean
+    public Capability userServiceDeadline(UserDeadlineProperties properties) {
+        return new DeadlineCapability(properties.getTimeout());
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.profileservice.config;
+
+import com.example.profileservice.client.PowerOfTwoChoicesLoadBalancer;
+import com.example.profileservice.client.StaticServiceInstanceListSupplier;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClient;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestClient;
+
+/**
+ * Client-side load balancing of {@code UserClient} over the instances listed in
+ * {@code user-service.load-balancer.instances}, without a proxy in front of User Service.
+ * <p>
+ * Instances are health checked in the background and only healthy ones are offered to the load
+ * balancer, which picks the less busy of two random instances and ejects instances that keep
+ * failing requests between health checks.
+ */
+@Configuration
+@LoadBalancerClient(name = UserServiceLoadBalancerConfig.SERVICE_ID,
+        configuration = UserServiceLoadBalancerConfig.UserServiceInstances.class)
+public class UserServiceLoadBalancerConfig {
+
+    static final String SERVICE_ID = "user-service";
+
+    /**
+     * Beans of the load balancer context for User Service. Not a {@code @Configuration}, so that
+     * component scanning leaves it to that context.
+     */
+    static class UserServiceInstances {
+
+        @Bean
+        public ServiceInstanceListSupplier userServiceInstanceSupplier(ConfigurableApplicationContext context,
+                                                                       UserLoadBalancerProperties properties) {
+            return ServiceInstanceListSupplier.builder()
+                    .withBase(new StaticServiceInstanceListSupplier(SERVICE_ID, properties.getInstances()))
+                    .withBlockingHealthChecks(RestClient.create())
+                    .build(context);
+        }
+
+        @Bean
+        public PowerOfTwoChoicesLoadBalancer userServiceLoadBalancer(
+                ObjectProvider<ServiceInstanceListSupplier> instanceSuppliers,
+                UserLoadBalancerProperties properties,
+                MeterRegistry meterRegistry) {
+            return new PowerOfTwoChoicesLoadBalancer(SERVICE_ID, instanceSuppliers,
+                    properties.getFailuresBeforeEjection(), properties.getEjectionDuration(), meterRegistry);
+        }
+    }
+}
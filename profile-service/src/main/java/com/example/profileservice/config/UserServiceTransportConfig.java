@@ -0,0 +1,123 @@
+package com.example.profileservice.config;
+
+import com.example.profileservice.client.ConnectionPrewarmer;
+import com.example.profileservice.client.InstrumentedConnectionManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.ConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.core5.http.HeaderElement;
+import org.apache.hc.core5.http.HeaderElements;
+import org.apache.hc.core5.http.io.SocketConfig;
+import org.apache.hc.core5.http.message.MessageSupport;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.pool.PoolReusePolicy;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.openfeign.clientconfig.HttpClient5FeignConfiguration;
+import org.springframework.cloud.openfeign.support.FeignHttpClientProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.URI;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pooled Apache HttpClient 5 transport for {@code UserClient}.
+ * <p>
+ * Replaces the connection manager that Spring Cloud OpenFeign would create with one that records
+ * lease wait time, applies keep-alive and idle eviction, exposes pool gauges and can pre-warm
+ * connections to each User Service instance at startup.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(value = "spring.cloud.openfeign.httpclient.hc5.enabled", matchIfMissing = true)
+public class UserServiceTransportConfig {
+
+    private static final String POOL_NAME = "user-service";
+
+    @Bean
+    public InstrumentedConnectionManager hc5ConnectionManager(FeignHttpClientProperties httpClientProperties,
+                                                              UserServiceTransportProperties transportProperties,
+                                                              MeterRegistry meterRegistry) {
+        FeignHttpClientProperties.Hc5Properties hc5 = httpClientProperties.getHc5();
+
+        InstrumentedConnectionManager connectionManager = new InstrumentedConnectionManager(
+                POOL_NAME,
+                PoolConcurrencyPolicy.valueOf(hc5.getPoolConcurrencyPolicy().name()),
+                PoolReusePolicy.valueOf(hc5.getPoolReusePolicy().name()),
+                TimeValue.of(httpClientProperties.getTimeToLive(), httpClientProperties.getTimeToLiveUnit()),
+                meterRegistry);
+        connectionManager.setMaxTotal(httpClientProperties.getMaxConnections());
+        connectionManager.setDefaultMaxPerRoute(httpClientProperties.getMaxConnectionsPerRoute());
+        connectionManager.setDefaultSocketConfig(SocketConfig.custom()
+                .setSoTimeout(Timeout.of(hc5.getSocketTimeout(), hc5.getSocketTimeoutUnit()))
+                .build());
+        connectionManager.setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.of(httpClientProperties.getConnectionTimeout(), TimeUnit.MILLISECONDS))
+                .setValidateAfterInactivity(TimeValue.of(transportProperties.getValidateAfterInactivity()))
+                .build());
+        return connectionManager;
+    }
+
+    @Bean
+    public HttpClient5FeignConfiguration.HttpClientBuilderCustomizer userServiceConnectionReuseCustomizer(
+            UserServiceTransportProperties transportProperties) {
+        return builder -> builder
+                .setKeepAliveStrategy(keepAliveStrategy(TimeValue.of(transportProperties.getKeepAlive())))
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(transportProperties.getIdleEviction()));
+    }
+
+    @Bean
+    public MeterBinder userServicePoolMetrics(InstrumentedConnectionManager connectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, POOL_NAME);
+    }
+
+    @Bean
+    public ApplicationRunner userServiceConnectionPrewarmer(InstrumentedConnectionManager connectionManager,
+                                                            UserServiceTransportProperties transportProperties,
+                                                            UserLoadBalancerProperties loadBalancerProperties) {
+        return args -> {
+            int connections = transportProperties.getPrewarmConnections();
+            if (connections <= 0) {
+                return;
+            }
+            ConnectionPrewarmer prewarmer = new ConnectionPrewarmer(connectionManager);
+            for (URI instance : loadBalancerProperties.getInstances()) {
+                int opened = prewarmer.prewarm(
+                        instance,
+                        connections,
+                        Timeout.of(transportProperties.getPrewarmTimeout()),
+                        TimeValue.of(transportProperties.getKeepAlive()));
+                log.info("Pre-warmed {} of {} connections to {}", opened, connections, instance);
+            }
+        };
+    }
+
+    /**
+     * Honors the {@code Keep-Alive: timeout=n} response header like the default strategy, but
+     * falls back to the configured keep-alive instead of keeping connections for minutes.
+     */
+    private static ConnectionKeepAliveStrategy keepAliveStrategy(TimeValue fallback) {
+        return (response, context) -> {
+            Iterator<HeaderElement> elements = MessageSupport.iterate(response, HeaderElements.KEEP_ALIVE);
+            while (elements.hasNext()) {
+                HeaderElement element = elements.next();
+                if ("timeout".equalsIgnoreCase(element.getName()) && element.getValue() != null) {
+                    try {
+                        return TimeValue.ofSeconds(Long.parseLong(element.getValue()));
+                    } catch (NumberFormatException ignored) {
+                        // fall through to the configured keep-alive
+                    }
+                }
+            }
+            return fallback;
+        };
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.profileservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Connection handling and wire format of the HTTP transport used by {@code UserClient}.
+ * <p>
+ * Pool limits are taken from the standard {@code spring.cloud.openfeign.httpclient.max-connections}
+ * and {@code max-connections-per-route} settings.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "user-service.transport")
+public class UserServiceTransportProperties {
+
+    /**
+     * How long an idle connection is kept for reuse when the server does not announce its own
+     * keep-alive timeout. Keep it below the server's keep-alive timeout.
+     */
+    private Duration keepAlive = Duration.ofSeconds(15);
+
+    /**
+     * Idle time after which a pooled connection is closed by the background evictor.
+     */
+    private Duration idleEviction = Duration.ofSeconds(30);
+
+    /**
+     * Inactivity after which a pooled connection is checked for staleness before it is reused.
+     */
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+
+    /**
+     * Number of connections opened to each User Service instance at startup; 0 disables pre-warming.
+     */
+    private int prewarmConnections = 0;
+
+    /**
+     * Connect timeout used while pre-warming.
+     */
+    private Duration prewarmTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Encoding of request and response bodies exchanged with User Service.
+     */
+    private WireFormat wireFormat = WireFormat.SMILE;
+
+    public enum WireFormat {
+        /**
+         * Plain JSON, as used by external clients.
+         */
+        JSON,
+        /**
+         * Smile, the binary form of the JSON data model; smaller and cheaper to parse.
+         */
+        SMILE
+    }
+}
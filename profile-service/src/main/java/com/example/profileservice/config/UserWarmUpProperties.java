@@ -0,0 +1,56 @@
+package com.example.profileservice.config;
+
+import com.example.profileservice.dto.UserBatchRequestDTO;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Settings for loading the users referenced by profiles into the local cache at startup.
+ */
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "user-service.warm-up")
+public class UserWarmUpProperties {
+
+    /**
+     * Whether users are loaded before the service reports itself ready.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Most users loaded; profiles updated most recently go first. Keep it at or below
+     * {@code user-service.cache.maximum-size}.
+     */
+    private int maxUsers = 10_000;
+
+    /**
+     * Users fetched per batch call; at most {@value UserBatchRequestDTO#MAX_IDS}, the most User
+     * Service accepts in one call.
+     */
+    @Positive
+    @Max(UserBatchRequestDTO.MAX_IDS)
+    private int batchSize = 100;
+
+    /**
+     * Batch calls in flight at the same time.
+     */
+    private int concurrency = 4;
+
+    /**
+     * Fraction of the users to load, between 0 and 1, after which the service reports itself ready;
+     * the rest keeps loading in the background.
+     */
+    private double readyFraction = 0.9;
+
+    /**
+     * Longest readiness is held for the warm-up, whatever has been loaded by then.
+     */
+    private Duration timeout = Duration.ofSeconds(30);
+}
@@ -0,0 +1,26 @@
+package com.example.profileservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for reporting virtual threads that pin their carrier thread.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "diagnostics.virtual-threads")
+public class VirtualThreadDiagnosticsProperties {
+
+    /**
+     * Shortest pinned section that is recorded; shorter ones cost less than the event itself.
+     */
+    private Duration pinnedThreshold = Duration.ofMillis(20);
+
+    /**
+     * Number of stack frames logged for each pinned section.
+     */
+    private int stackDepth = 12;
+}
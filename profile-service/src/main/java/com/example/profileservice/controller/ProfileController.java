@@ -12,15 +12,22 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/profiles")
 @RequiredArgsConstructor
 @Tag(name = "Profiles", description = "Profile management APIs")
 public class ProfileController {
 
+    // RFC 7234 warn-code 110, which caches send with stale responses
+    private static final String STALE_WARNING = "110 - \"Response is Stale\"";
+
     private final ProfileService profileService;
 
     @PostMapping
@@ -45,17 +52,26 @@ public class ProfileController {
     @GetMapping("/{id}/with-user")
     @Operation(
             summary = "Get profile with user data",
-            description = "Returns profile information combined with user data"
+            description = "Returns profile information combined with user data. The request thread is "
+                    + "released while the user is fetched from User Service. When User Service fails, "
+                    + "the last known user data is returned with a Warning header and staleUserFetchedAt"
     )
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "Combined user + profile returned"),
+            @ApiResponse(responseCode = "200", description = "Combined user + profile returned, possibly stale"),
             @ApiResponse(responseCode = "404", description = "Profile or user not found")
     })
-    public UserProfileDTO getProfileWithUser(
+    public CompletableFuture<ResponseEntity<UserProfileDTO>> getProfileWithUser(
             @PathVariable("id")
             Long id
     ) {
-        return profileService.getUserProfile(id);
+        return profileService.getUserProfileAsync(id).thenApply(userProfile -> {
+            if (userProfile.getStaleUserFetchedAt() == null) {
+                return ResponseEntity.ok(userProfile);
+            }
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.WARNING, STALE_WARNING)
+                    .body(userProfile);
+        });
     }
 }
 
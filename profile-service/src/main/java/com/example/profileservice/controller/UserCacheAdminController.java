@@ -0,0 +1,49 @@
+package com.example.profileservice.controller;
+
+
+import com.example.profileservice.service.UserLookupService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/admin/user-cache")
+@RequiredArgsConstructor
+@Tag(name = "User cache administration", description = "Manage the local cache of User Service data")
+public class UserCacheAdminController {
+
+    private final UserLookupService userLookupService;
+
+    @DeleteMapping("/{userId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @Operation(
+            summary = "Evict one user",
+            description = "Removes the cached and replicated user so the next read fetches it from User Service"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "User evicted from the cache")
+    })
+    public void evict(
+            @PathVariable("userId")
+            Long userId
+    ) {
+        userLookupService.evict(userId);
+    }
+
+    @DeleteMapping
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @Operation(
+            summary = "Evict all users",
+            description = "Clears the local user cache and replica"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Cache cleared")
+    })
+    public void evictAll() {
+        userLookupService.evictAll();
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.profileservice.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserBatchRequestDTO {
+
+    /**
+     * Most ids User Service accepts in one batch request.
+     */
+    public static final int MAX_IDS = 1000;
+
+    private List<Long> ids;
+}
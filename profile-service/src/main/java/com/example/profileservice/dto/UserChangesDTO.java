@@ -0,0 +1,15 @@
+package com.example.profileservice.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserChangesDTO {
+    private List<UserDTO> users;
+    private long cursor;
+}
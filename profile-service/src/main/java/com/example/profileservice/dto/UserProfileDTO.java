@@ -1,7 +1,10 @@
 package com.example.profileservice.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.*;
 
+import java.time.Instant;
+
 @Getter
 @Setter
 @Builder
@@ -17,5 +20,12 @@ public class UserProfileDTO {
     private Integer age;
 
     private UserDTO user;
+
+    /**
+     * Set only when {@link #user} is a stale copy served because User Service failed: when that
+     * copy was fetched.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Instant staleUserFetchedAt;
 }
 
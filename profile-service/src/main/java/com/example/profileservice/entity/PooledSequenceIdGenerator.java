@@ -0,0 +1,39 @@
+package com.example.profileservice.entity;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.id.OptimizableGenerator;
+import org.hibernate.id.PersistentIdentifierGenerator;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+/**
+ * Sequence generator for {@link BaseModel} ids: one sequence per table, named
+ * {@code <table>_seq}, from which ids are taken in blocks.
+ * <p>
+ * Hibernate hands out ids from a block in memory, so saving an entity does not hit the database
+ * until flush and inserts can be sent in JDBC batches. The block size is the
+ * {@value #ALLOCATION_SIZE} setting and must match the sequence's increment in the database; the
+ * optimizer ({@code pooled} or {@code pooled-lo}) is chosen with
+ * {@code hibernate.id.optimizer.pooled.preferred}.
+ */
+public class PooledSequenceIdGenerator extends SequenceStyleGenerator {
+
+    public static final String ALLOCATION_SIZE = "id_generator.allocation_size";
+
+    public static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) throws MappingException {
+        int allocationSize = serviceRegistry.getService(ConfigurationService.class)
+                .getSetting(ALLOCATION_SIZE, StandardConverters.INTEGER, DEFAULT_ALLOCATION_SIZE);
+        parameters.put(OptimizableGenerator.INCREMENT_PARAM, String.valueOf(allocationSize));
+        parameters.putIfAbsent(SEQUENCE_PARAM,
+                parameters.getProperty(PersistentIdentifierGenerator.TABLE) + "_seq");
+        super.configure(type, parameters, serviceRegistry);
+    }
+}
@@ -28,6 +28,7 @@ public interface ProfileMapper {
     @Mapping(target = "location", source = "profile.location")
     @Mapping(target = "age", source = "profile.age")
     @Mapping(target = "user", source = "user")
+    @Mapping(target = "staleUserFetchedAt", ignore = true)
     UserProfileDTO toUserProfileDto(Profile profile, UserDTO user);
 }
 
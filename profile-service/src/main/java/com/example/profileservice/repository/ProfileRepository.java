@@ -2,7 +2,17 @@ package com.example.profileservice.repository;
 
 
 import com.example.profileservice.entity.Profile;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
 
 public interface ProfileRepository extends JpaRepository<Profile, Long> {
+
+    /**
+     * The users referenced by profiles, most recently updated profiles first.
+     */
+    @Query("select p.userId from Profile p group by p.userId order by max(p.updatedAt) desc")
+    List<Long> findDistinctUserIds(Limit limit);
 }
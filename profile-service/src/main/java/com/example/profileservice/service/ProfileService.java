@@ -1,6 +1,6 @@
 package com.example.profileservice.service;
 
-import com.example.profileservice.client.UserClient;
+import com.example.profileservice.client.Futures;
 import com.example.profileservice.dto.ProfileRequestDTO;
 import com.example.profileservice.dto.ProfileResponseDTO;
 import com.example.profileservice.dto.UserDTO;
@@ -10,32 +10,46 @@ import com.example.profileservice.exception.ProfileNotFoundException;
 import com.example.profileservice.exception.UserNotFoundException;
 import com.example.profileservice.mapper.ProfileMapper;
 import com.example.profileservice.repository.ProfileRepository;
-import feign.FeignException;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Profile operations that depend on User Service.
+ * <p>
+ * None of the methods that call User Service run in a transaction. The repository calls open
+ * their own short transactions, so a database connection is only borrowed for the insert or
+ * the profile read and never while waiting for User Service or between retry attempts. The user
+ * check runs before the insert, and the retried failures can only come from that check, so a retry
+ * never repeats the insert.
+ * <p>
+ * The fallbacks sit on the retry, which wraps the circuit breaker: failed attempts reach the retry
+ * unchanged and are retried within the retry budget, and only the final failure is mapped. A
+ * fallback on the circuit breaker would turn every failed attempt into a non-retryable exception.
+ * resilience4j invokes fallbacks on the Spring proxy, whose fields are never set, so the fallbacks
+ * that read profiles are package-private: the proxy passes them on to this bean.
+ * <p>
+ * When User Service fails, whether the circuit is open, the retries ran out or the call was
+ * rejected locally, the profile lookups answer with the last known copy of the user if one was
+ * fetched within the stale-if-error period, marked by {@link UserProfileDTO#getStaleUserFetchedAt()}.
+ * Only without such a copy does the failure reach the client.
+ */
 @Service
 @RequiredArgsConstructor
 public class ProfileService {
 
     private final ProfileRepository profileRepository;
     private final ProfileMapper profileMapper;
-    private final UserClient userClient;
+    private final UserLookupService userLookupService;
 
-    @Transactional
-    @CircuitBreaker(name = "userService", fallbackMethod = "createProfileFallback")
-    @Retry(name = "userService")
+    @CircuitBreaker(name = "userService")
+    @Retry(name = "userService", fallbackMethod = "createProfileFallback")
     public ProfileResponseDTO create(ProfileRequestDTO dto) {
-        Long userId = dto.getUserId();
-
-        try {
-            userClient.getUserById(userId);
-        } catch (FeignException.NotFound ex) {
-            throw new UserNotFoundException(userId);
-        }
+        userLookupService.getUserById(dto.getUserId());
 
         Profile profile = profileMapper.toEntity(dto);
         Profile saved = profileRepository.save(profile);
@@ -51,24 +65,18 @@ public class ProfileService {
         throw new RuntimeException("User service is not available right now. Please try again later.", ex);
     }
 
-    @Transactional(readOnly = true)
-    @CircuitBreaker(name = "userService", fallbackMethod = "getUserProfileFallback")
-    @Retry(name = "userService")
+    @CircuitBreaker(name = "userService")
+    @Retry(name = "userService", fallbackMethod = "getUserProfileFallback")
     public UserProfileDTO getUserProfile(Long profileId) {
         Profile profile = profileRepository.findById(profileId)
                 .orElseThrow(() -> new ProfileNotFoundException(profileId));
 
-        UserDTO user;
-        try {
-            user = userClient.getUserById(profile.getUserId());
-        } catch (FeignException.NotFound ex) {
-            throw new UserNotFoundException(profile.getUserId());
-        }
+        UserDTO user = userLookupService.getUserById(profile.getUserId());
 
         return profileMapper.toUserProfileDto(profile, user);
     }
 
-    private UserProfileDTO getUserProfileFallback(Long profileId, Throwable ex) {
+    UserProfileDTO getUserProfileFallback(Long profileId, Throwable ex) {
 
         if (ex instanceof ProfileNotFoundException) {
             throw (ProfileNotFoundException) ex;
@@ -77,6 +85,43 @@ public class ProfileService {
             throw (UserNotFoundException) ex;
         }
 
-        throw new RuntimeException("User service is not available right now. Cannot load user profile.", ex);
+        return staleUserProfile(profileId).orElseThrow(() ->
+                new RuntimeException("User service is not available right now. Cannot load user profile.", ex));
+    }
+
+    /**
+     * Non-blocking variant of {@link #getUserProfile(Long)}. The profile is read on the calling
+     * thread; the user lookup completes the returned future later, and retry waits are scheduled
+     * rather than slept, so no thread is held while User Service responds.
+     */
+    @CircuitBreaker(name = "userService")
+    @Retry(name = "userService", fallbackMethod = "getUserProfileAsyncFallback")
+    public CompletableFuture<UserProfileDTO> getUserProfileAsync(Long profileId) {
+        Profile profile = profileRepository.findById(profileId)
+                .orElseThrow(() -> new ProfileNotFoundException(profileId));
+
+        return Futures.unwrapFailures(userLookupService.getUserByIdAsync(profile.getUserId())
+                .thenApply(user -> profileMapper.toUserProfileDto(profile, user)));
+    }
+
+    CompletableFuture<UserProfileDTO> getUserProfileAsyncFallback(Long profileId, Throwable ex) {
+
+        if (ex instanceof ProfileNotFoundException || ex instanceof UserNotFoundException) {
+            return CompletableFuture.failedFuture(ex);
+        }
+
+        return staleUserProfile(profileId)
+                .map(CompletableFuture::completedFuture)
+                .orElseGet(() -> CompletableFuture.failedFuture(
+                        new RuntimeException("User service is not available right now. Cannot load user profile.", ex)));
+    }
+
+    private Optional<UserProfileDTO> staleUserProfile(Long profileId) {
+        return profileRepository.findById(profileId).flatMap(profile ->
+                userLookupService.getLastKnownUser(profile.getUserId()).map(lastKnown -> {
+                    UserProfileDTO userProfile = profileMapper.toUserProfileDto(profile, lastKnown.user());
+                    userProfile.setStaleUserFetchedAt(lastKnown.fetchedAt());
+                    return userProfile;
+                }));
     }
 }
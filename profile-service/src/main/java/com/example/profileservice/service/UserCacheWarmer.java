@@ -0,0 +1,142 @@
+package com.example.profileservice.service;
+
+import com.example.profileservice.config.UserWarmUpProperties;
+import com.example.profileservice.repository.ProfileRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loads the users referenced by existing profiles into {@link UserLookupService} at startup, so
+ * the first requests after a restart do not all go to User Service.
+ * <p>
+ * The distinct user ids are read from the profile table up front, most recently updated profiles
+ * first, so no database connection is held while they are fetched in batches of
+ * {@code user-service.warm-up.batch-size} with at most {@code user-service.warm-up.concurrency}
+ * batch calls in flight. Spring Boot reports the
+ * application ready only after its runners return, so this runner holds readiness until the
+ * ready fraction of the users is loaded or the timeout passes; the remaining batches keep loading
+ * in the background. Users that fail to load are left to be fetched on their first read.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "user-service.warm-up.enabled")
+public class UserCacheWarmer implements ApplicationRunner {
+
+    private final ProfileRepository profileRepository;
+    private final UserLookupService userLookupService;
+    private final UserWarmUpProperties properties;
+
+    public UserCacheWarmer(ProfileRepository profileRepository,
+                           UserLookupService userLookupService,
+                           UserWarmUpProperties properties) {
+        this.profileRepository = profileRepository;
+        this.userLookupService = userLookupService;
+        this.properties = properties;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException {
+        List<Long> userIds = profileRepository.findDistinctUserIds(Limit.of(properties.getMaxUsers()));
+        if (userIds.isEmpty()) {
+            return;
+        }
+        WarmUp warmUp = new WarmUp(userIds);
+        log.info("Warming up {} users from User Service", userIds.size());
+        Thread.ofPlatform()
+                .name("user-warm-up")
+                .daemon()
+                .start(warmUp::load);
+
+        try {
+            warmUp.ready.get(properties.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            log.warn("User warm-up did not reach {}% within {}, continuing in the background ({}/{} loaded)",
+                    Math.round(properties.getReadyFraction() * 100), properties.getTimeout(),
+                    warmUp.loaded.get(), userIds.size());
+        } catch (ExecutionException ex) {
+            log.warn("User warm-up failed: {}", ex.getCause().getMessage());
+        }
+    }
+
+    /**
+     * Progress of one warm-up run.
+     */
+    private class WarmUp {
+
+        private final List<Long> userIds;
+        private final long total;
+        private final long readyAt;
+        private final Semaphore permits = new Semaphore(properties.getConcurrency());
+        private final AtomicLong loaded = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong done = new AtomicLong();
+        private final CompletableFuture<Void> ready = new CompletableFuture<>();
+        private final long startedNanos = System.nanoTime();
+
+        WarmUp(List<Long> userIds) {
+            this.userIds = userIds;
+            this.total = userIds.size();
+            this.readyAt = (long) Math.ceil(total * properties.getReadyFraction());
+        }
+
+        void load() {
+            try {
+                for (int from = 0; from < userIds.size(); from += properties.getBatchSize()) {
+                    submit(userIds.subList(from, Math.min(from + properties.getBatchSize(), userIds.size())));
+                }
+                permits.acquire(properties.getConcurrency());
+                log.info("User warm-up finished in {} ms: {} loaded, {} failed",
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos),
+                        loaded.get(), failed.get());
+                ready.complete(null);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                ready.completeExceptionally(ex);
+            } catch (RuntimeException ex) {
+                ready.completeExceptionally(ex);
+            }
+        }
+
+        private void submit(List<Long> batch) {
+            permits.acquireUninterruptibly();
+            userLookupService.preload(batch).whenComplete((found, ex) -> {
+                try {
+                    if (ex == null) {
+                        loaded.addAndGet(found);
+                        failed.addAndGet(batch.size() - found);
+                    } else {
+                        failed.addAndGet(batch.size());
+                        log.debug("User warm-up batch failed: {}", ex.getMessage());
+                    }
+                    progressed(batch.size());
+                } finally {
+                    permits.release();
+                }
+            });
+        }
+
+        private void progressed(int batchSize) {
+            long before = done.getAndAdd(batchSize);
+            long after = before + batchSize;
+            if (after * 10 / total > before * 10 / total) {
+                log.info("User warm-up {}%: {} loaded, {} failed of {}",
+                        after * 100 / total, loaded.get(), failed.get(), total);
+            }
+            if (loaded.get() >= readyAt) {
+                ready.complete(null);
+            }
+        }
+    }
+}
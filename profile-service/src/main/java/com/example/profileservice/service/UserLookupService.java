@@ -0,0 +1,266 @@
+package com.example.profileservice.service;
+
+import com.example.profileservice.client.AsyncUserClient;
+import com.example.profileservice.client.Futures;
+import com.example.profileservice.client.SingleFlight;
+import com.example.profileservice.client.UserBatchDispatcher;
+import com.example.profileservice.client.UserReplica;
+import com.example.profileservice.config.UserBatchProperties;
+import com.example.profileservice.config.UserCacheProperties;
+import com.example.profileservice.dto.UserDTO;
+import com.example.profileservice.exception.UserNotFoundException;
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Resolves users from User Service for {@link ProfileService}.
+ * <p>
+ * Users held by the {@link UserReplica} are answered locally without calling User Service while
+ * the replica is in sync with the change feed. Every other read registers its user with the
+ * replica and resolves as described below; the fetched user then seeds the replica.
+ * <p>
+ * Users are served from a bounded local cache when enabled. A miss loads the user once per key
+ * while other readers of the same key wait for it, and entries past the refresh interval are
+ * reloaded in the background while the old value is still served. Reloads revalidate the entry
+ * with a conditional GET on its ETag when one is known, so an unchanged user costs a 304 instead
+ * of a full response; entries loaded on a miss have no ETag until their first reload. Uncached
+ * lookups share one in-flight call per user and are micro-batched by {@link UserBatchDispatcher}
+ * unless batching is disabled. {@link #getUserByIdAsync} resolves the same way without blocking
+ * the caller: batched lookups complete from the batch call and single lookups run on
+ * {@link AsyncUserClient}. The resilience annotations stay on {@link ProfileService}, so every
+ * caller still goes through the circuit breaker and retries on its own.
+ * <p>
+ * Every user fetched or revalidated is also kept as the last known copy for the stale-if-error
+ * period, independently of the cache's expiry. {@link #getLastKnownUser} hands it to the
+ * fallbacks when User Service fails.
+ */
+@Service
+public class UserLookupService {
+
+    private final AsyncUserClient asyncUserClient;
+    private final UserBatchDispatcher batchDispatcher;
+    private final UserBatchProperties batchProperties;
+    private final UserReplica userReplica;
+    private final SingleFlight<Long, UserDTO> userLookups;
+    private final AsyncLoadingCache<Long, CachedUser> userCache;
+    private final Cache<Long, LastKnownUser> lastKnownUsers;
+    private final Counter notModified;
+    private final Counter modified;
+    private final Counter staleServed;
+
+    public UserLookupService(AsyncUserClient asyncUserClient,
+                             UserBatchDispatcher batchDispatcher,
+                             UserBatchProperties batchProperties,
+                             UserReplica userReplica,
+                             UserCacheProperties cacheProperties,
+                             MeterRegistry meterRegistry) {
+        this.asyncUserClient = asyncUserClient;
+        this.batchDispatcher = batchDispatcher;
+        this.batchProperties = batchProperties;
+        this.userReplica = userReplica;
+        this.userLookups = new SingleFlight<>("user-lookup", meterRegistry);
+        this.userCache = cacheProperties.isEnabled()
+                ? CaffeineCacheMetrics.monitor(meterRegistry, buildCache(cacheProperties), "users")
+                : null;
+        this.lastKnownUsers = cacheProperties.getStaleIfError().isPositive()
+                ? Caffeine.newBuilder()
+                        .maximumSize(cacheProperties.getMaximumSize())
+                        .expireAfterWrite(cacheProperties.getStaleIfError())
+                        .build()
+                : null;
+        this.notModified = Counter.builder("user.cache.revalidations")
+                .description("Conditional reloads of cached users")
+                .tag("result", "not_modified")
+                .register(meterRegistry);
+        this.modified = Counter.builder("user.cache.revalidations")
+                .description("Conditional reloads of cached users")
+                .tag("result", "modified")
+                .register(meterRegistry);
+        this.staleServed = Counter.builder("user.cache.stale.served")
+                .description("Last known users served because User Service failed")
+                .register(meterRegistry);
+    }
+
+    public UserDTO getUserById(Long userId) {
+        Optional<UserDTO> replicated = userReplica.find(userId);
+        if (replicated.isPresent()) {
+            return replicated.get();
+        }
+        if (userCache == null) {
+            return fetchShared(userId);
+        }
+        return userCache.synchronous().get(userId).user();
+    }
+
+    public CompletableFuture<UserDTO> getUserByIdAsync(Long userId) {
+        Optional<UserDTO> replicated = userReplica.find(userId);
+        if (replicated.isPresent()) {
+            return CompletableFuture.completedFuture(replicated.get());
+        }
+        if (userCache == null) {
+            return fetchSharedAsync(userId);
+        }
+        return userCache.get(userId).thenApply(CachedUser::user);
+    }
+
+    /**
+     * Loads users into the cache and the replica ahead of their first read with one batch call.
+     * Users already cached are left as they are.
+     *
+     * @return the number of users found
+     */
+    public CompletableFuture<Integer> preload(List<Long> userIds) {
+        userIds.forEach(userReplica::track);
+        return asyncUserClient.getUsersByIds(userIds).thenApply(batch -> {
+            for (UserDTO user : batch.getUsers()) {
+                if (userCache != null) {
+                    userCache.asMap().putIfAbsent(user.getId(),
+                            CompletableFuture.completedFuture(new CachedUser(user, null)));
+                }
+                remember(user.getId(), user);
+            }
+            return batch.getUsers().size();
+        });
+    }
+
+    /**
+     * The last copy of the user fetched from User Service within the stale-if-error period, for
+     * answering while User Service fails.
+     */
+    public Optional<LastKnownUser> getLastKnownUser(Long userId) {
+        if (lastKnownUsers == null) {
+            return Optional.empty();
+        }
+        Optional<LastKnownUser> lastKnown = Optional.ofNullable(lastKnownUsers.getIfPresent(userId));
+        lastKnown.ifPresent(user -> staleServed.increment());
+        return lastKnown;
+    }
+
+    public void evict(Long userId) {
+        userReplica.evict(userId);
+        if (userCache != null) {
+            userCache.synchronous().invalidate(userId);
+        }
+        if (lastKnownUsers != null) {
+            lastKnownUsers.invalidate(userId);
+        }
+    }
+
+    public void evictAll() {
+        userReplica.evictAll();
+        if (userCache != null) {
+            userCache.synchronous().invalidateAll();
+        }
+        if (lastKnownUsers != null) {
+            lastKnownUsers.invalidateAll();
+        }
+    }
+
+    private AsyncLoadingCache<Long, CachedUser> buildCache(UserCacheProperties properties) {
+        return Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .refreshAfterWrite(properties.getRefreshAfterWrite())
+                .recordStats()
+                .buildAsync(new AsyncCacheLoader<>() {
+                    @Override
+                    public CompletableFuture<CachedUser> asyncLoad(Long userId, Executor executor) {
+                        return fetchSharedAsync(userId).thenApply(user -> new CachedUser(user, null));
+                    }
+
+                    @Override
+                    public CompletableFuture<CachedUser> asyncReload(Long userId, CachedUser oldValue, Executor executor) {
+                        CompletableFuture<CachedUser> reload = properties.isRevalidate()
+                                ? revalidate(userId, oldValue)
+                                : asyncLoad(userId, executor);
+                        return reload.exceptionally(ex -> {
+                            RuntimeException failure = Futures.unwrap(ex);
+                            if (failure instanceof UserNotFoundException) {
+                                return null;
+                            }
+                            throw failure;
+                        });
+                    }
+                });
+    }
+
+    private CompletableFuture<CachedUser> revalidate(Long userId, CachedUser cached) {
+        return asyncUserClient.getUserByIdIfNoneMatch(userId, cached.etag()).thenApply(response -> {
+            if (response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+                notModified.increment();
+                remember(userId, cached.user());
+                return cached;
+            }
+            modified.increment();
+            CachedUser reloaded = CachedUser.of(response);
+            remember(userId, reloaded.user());
+            return reloaded;
+        });
+    }
+
+    private UserDTO fetchShared(Long userId) {
+        UserDTO user = userLookups.execute(userId, () -> fetchUser(userId));
+        remember(userId, user);
+        return user;
+    }
+
+    private CompletableFuture<UserDTO> fetchSharedAsync(Long userId) {
+        return userLookups.executeAsync(userId, () -> fetchUserAsync(userId))
+                .thenApply(user -> {
+                    remember(userId, user);
+                    return user;
+                });
+    }
+
+    private void remember(Long userId, UserDTO user) {
+        userReplica.offer(user);
+        if (lastKnownUsers != null) {
+            lastKnownUsers.put(userId, new LastKnownUser(user, Instant.now()));
+        }
+    }
+
+    private CompletableFuture<UserDTO> fetchUserAsync(Long userId) {
+        if (batchProperties.isEnabled()) {
+            return batchDispatcher.load(userId);
+        }
+        return asyncUserClient.getUserById(userId);
+    }
+
+    private UserDTO fetchUser(Long userId) {
+        if (batchProperties.isEnabled()) {
+            return Futures.join(batchDispatcher.load(userId));
+        }
+
+        return asyncUserClient.getUserByIdBlocking(userId);
+    }
+
+    /**
+     * The last copy of a user fetched from User Service and when it was fetched.
+     */
+    public record LastKnownUser(UserDTO user, Instant fetchedAt) {
+    }
+
+    /**
+     * A cached user with the ETag it was served with, {@code null} when it was loaded on a miss.
+     */
+    private record CachedUser(UserDTO user, String etag) {
+
+        static CachedUser of(ResponseEntity<UserDTO> response) {
+            return new CachedUser(response.getBody(), response.getHeaders().getETag());
+        }
+    }
+}
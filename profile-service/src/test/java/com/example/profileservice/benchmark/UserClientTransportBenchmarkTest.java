@@ -0,0 +1,193 @@
+package com.example.profileservice.benchmark;
+
+import feign.Client;
+import feign.Feign;
+import feign.Param;
+import feign.Request;
+import feign.RequestLine;
+import feign.hc5.ApacheHttp5Client;
+import feign.http2client.Http2Client;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.catalina.Context;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.coyote.http2.Http2Protocol;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the HTTP/1.1 connection pool with HTTP/2 cleartext for many concurrent user lookups.
+ * <p>
+ * A Tomcat with the h2c upgrade protocol stands in for User Service and answers
+ * {@code GET /users/{id}} after a short delay. Each transport runs the same load; the number of
+ * distinct client sockets seen by the server and the latency percentiles are printed.
+ * Run with {@code mvn test -Pbenchmark -pl profile-service}.
+ */
+@Tag("benchmark")
+@DisplayName("UserClient transport benchmark: HTTP/1.1 pool vs h2c")
+class UserClientTransportBenchmarkTest {
+
+    private static final int CONCURRENCY = 256;
+    private static final int WARMUP_REQUESTS = 2_000;
+    private static final int MEASURED_REQUESTS = 20_000;
+    private static final long SERVER_DELAY_MILLIS = 5;
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(2);
+
+    // Http2Client only reuses its HttpClient when these options match its timeout and redirect policy
+    private static final Request.Options OPTIONS = new Request.Options(
+            CONNECT_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS, 30, TimeUnit.SECONDS, true);
+
+    private static final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private static Tomcat tomcat;
+    private static String baseUrl;
+
+    interface BenchmarkUserClient {
+        @RequestLine("GET /users/{id}")
+        String getUserById(@Param("id") long id);
+    }
+
+    @BeforeAll
+    static void startServer(@TempDir Path baseDir) throws Exception {
+        tomcat = new Tomcat();
+        tomcat.setBaseDir(baseDir.toString());
+
+        Connector connector = new Connector();
+        connector.setPort(0);
+        connector.setProperty("maxThreads", String.valueOf(CONCURRENCY));
+        connector.setProperty("maxConnections", "10000");
+        Http2Protocol http2 = new Http2Protocol();
+        http2.setMaxConcurrentStreams(CONCURRENCY);
+        http2.setMaxConcurrentStreamExecution(CONCURRENCY);
+        connector.addUpgradeProtocol(http2);
+        tomcat.setConnector(connector);
+
+        Context context = tomcat.addContext("", null);
+        Tomcat.addServlet(context, "users", new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                clientPorts.add(request.getRemotePort());
+                try {
+                    Thread.sleep(SERVER_DELAY_MILLIS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                response.setContentType("application/json");
+                response.getWriter().write("{\"id\":1,\"name\":\"Jane Doe\",\"email\":\"jane@example.com\"}");
+            }
+        });
+        context.addServletMappingDecoded("/users/*", "users");
+
+        tomcat.start();
+        baseUrl = "http://localhost:" + connector.getLocalPort();
+    }
+
+    @AfterAll
+    static void stopServer() throws Exception {
+        tomcat.stop();
+        tomcat.destroy();
+    }
+
+    @Test
+    @DisplayName("h2c should serve the same load over fewer connections")
+    void compareTransports() throws Exception {
+        Result http1 = run("HTTP/1.1 pool", new ApacheHttp5Client(HttpClients.custom()
+                .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                        .setMaxConnTotal(CONCURRENCY)
+                        .setMaxConnPerRoute(CONCURRENCY)
+                        .build())
+                .build()));
+        Result h2c = run("h2c", new Http2Client(HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(CONNECT_TIMEOUT)
+                .followRedirects(HttpClient.Redirect.ALWAYS)
+                .build()));
+
+        System.out.printf("%n%-14s %12s %10s %10s %10s %12s%n",
+                "transport", "connections", "p50 ms", "p99 ms", "max ms", "req/s");
+        List.of(http1, h2c).forEach(result -> System.out.printf("%-14s %12d %10.2f %10.2f %10.2f %12.0f%n",
+                result.name(), result.connections(), result.p50Millis(), result.p99Millis(),
+                result.maxMillis(), result.throughput()));
+
+        assertThat(h2c.connections()).isLessThan(http1.connections());
+    }
+
+    private Result run(String name, Client client) throws Exception {
+        BenchmarkUserClient userClient = Feign.builder()
+                .client(client)
+                .options(OPTIONS)
+                .target(BenchmarkUserClient.class, baseUrl);
+
+        execute(userClient, WARMUP_REQUESTS);
+        clientPorts.clear();
+
+        long startedAt = System.nanoTime();
+        long[] latencies = execute(userClient, MEASURED_REQUESTS);
+        double elapsedSeconds = (System.nanoTime() - startedAt) / 1e9;
+
+        Arrays.sort(latencies);
+        return new Result(name, clientPorts.size(),
+                percentile(latencies, 0.50), percentile(latencies, 0.99),
+                latencies[latencies.length - 1] / 1e6,
+                MEASURED_REQUESTS / elapsedSeconds);
+    }
+
+    private long[] execute(BenchmarkUserClient userClient, int requests) throws Exception {
+        long[] latencies = new long[requests];
+        Semaphore inFlight = new Semaphore(CONCURRENCY);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = IntStream.range(0, requests)
+                    .mapToObj(i -> {
+                        inFlight.acquireUninterruptibly();
+                        return executor.submit(() -> {
+                            try {
+                                long start = System.nanoTime();
+                                userClient.getUserById(i);
+                                latencies[i] = System.nanoTime() - start;
+                            } finally {
+                                inFlight.release();
+                            }
+                        });
+                    })
+                    .<Future<?>>map(future -> future)
+                    .toList();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        }
+        return latencies;
+    }
+
+    private static double percentile(long[] sortedNanos, double quantile) {
+        int index = (int) Math.ceil(quantile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(index, 0)] / 1e6;
+    }
+
+    private record Result(String name, int connections, double p50Millis, double p99Millis,
+                          double maxMillis, double throughput) {
+    }
+}
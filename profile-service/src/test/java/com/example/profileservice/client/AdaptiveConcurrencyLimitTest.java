@@ -0,0 +1,97 @@
+package com.example.profileservice.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("AdaptiveConcurrencyLimit Tests")
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long BASELINE_NANOS = Duration.ofMillis(10).toNanos();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("Should reject requests over the limit without counting them in flight")
+    void shouldRejectRequestsOverLimit() {
+        AdaptiveConcurrencyLimit limit = newLimit(2);
+        limit.acquire();
+        limit.acquire();
+
+        assertThatThrownBy(limit::acquire)
+                .isInstanceOf(ConcurrencyLimitExceededException.class)
+                .hasMessageContaining("2");
+        assertThat(limit.getInFlight()).isEqualTo(2);
+        assertThat(meterRegistry.get("user.concurrency.rejections").counter().count()).isEqualTo(1.0);
+
+        limit.releaseWithoutSample();
+        limit.acquire();
+    }
+
+    @Test
+    @DisplayName("Should grow the limit while busy requests answer at the baseline latency")
+    void shouldGrowAtBaselineLatency() {
+        AdaptiveConcurrencyLimit limit = newLimit(10);
+
+        for (int i = 0; i < 5; i++) {
+            fill(limit);
+            drain(limit, BASELINE_NANOS);
+        }
+
+        assertThat(limit.getLimit()).isGreaterThan(10);
+        assertThat(meterRegistry.get("user.concurrency.limit").gauge().value()).isEqualTo(limit.getLimit());
+    }
+
+    @Test
+    @DisplayName("Should not grow the limit while most of it is unused")
+    void shouldNotGrowWhenUnused() {
+        AdaptiveConcurrencyLimit limit = newLimit(10);
+
+        for (int i = 0; i < 50; i++) {
+            limit.acquire();
+            limit.release(BASELINE_NANOS, false);
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Should shrink the limit when latency shows queueing and halve it on drops")
+    void shouldShrinkOnQueueingAndDrops() {
+        AdaptiveConcurrencyLimit limit = newLimit(40);
+        limit.acquire();
+        limit.release(BASELINE_NANOS, false);
+
+        for (int i = 0; i < 5; i++) {
+            fill(limit);
+            drain(limit, 4 * BASELINE_NANOS);
+        }
+        int queued = limit.getLimit();
+        assertThat(queued).isLessThan(40);
+
+        limit.acquire();
+        limit.release(BASELINE_NANOS, true);
+        assertThat(limit.getLimit()).isEqualTo(queued / 2);
+    }
+
+    private AdaptiveConcurrencyLimit newLimit(int initialLimit) {
+        return new AdaptiveConcurrencyLimit("test", initialLimit, 1, 1000, Duration.ofMinutes(1), meterRegistry);
+    }
+
+    private static void fill(AdaptiveConcurrencyLimit limit) {
+        while (limit.getInFlight() < limit.getLimit()) {
+            limit.acquire();
+        }
+    }
+
+    private static void drain(AdaptiveConcurrencyLimit limit, long latencyNanos) {
+        while (limit.getInFlight() > 0) {
+            limit.release(latencyNanos, false);
+        }
+    }
+}
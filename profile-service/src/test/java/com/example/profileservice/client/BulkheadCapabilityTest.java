@@ -0,0 +1,158 @@
+package com.example.profileservice.client;
+
+import feign.Capability;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("BulkheadCapability Tests")
+class BulkheadCapabilityTest {
+
+    private static final Request REQUEST = Request.create(
+            Request.HttpMethod.GET, "http://user-service/users/1", Map.of(), null, null, null);
+
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private final Client slowClient = (request, options) -> {
+        started.countDown();
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        return response(request);
+    };
+
+    @Test
+    @DisplayName("Should reject requests beyond the semaphore limit instead of waiting")
+    void shouldRejectRequestsBeyondSemaphoreLimit() throws Exception {
+        Bulkhead bulkhead = Bulkhead.of("test", BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        Client client = BulkheadCapability.semaphore(bulkhead).enrich(slowClient);
+
+        CompletableFuture<Response> first = CompletableFuture.supplyAsync(() -> execute(client));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> client.execute(REQUEST, new Request.Options()))
+                .isInstanceOf(BulkheadFullException.class);
+
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS).status()).isEqualTo(200);
+        assertThat(bulkhead.getMetrics().getAvailableConcurrentCalls()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should reject requests at the bulkhead before they take a concurrency limit slot")
+    void shouldRejectAtBulkheadBeforeConcurrencyLimit() throws Exception {
+        Bulkhead bulkhead = Bulkhead.of("test", BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit("test", 10, 1, 10,
+                Duration.ofMinutes(1), new SimpleMeterRegistry());
+        BulkheadCapability bulkheadCapability = BulkheadCapability.semaphore(bulkhead);
+        ConcurrencyLimitCapability limitCapability = new ConcurrencyLimitCapability(limit);
+        DeadlineCapability deadlineCapability = new DeadlineCapability(Duration.ofSeconds(2));
+        RetryBudgetCapability budgetCapability = new RetryBudgetCapability(
+                new RetryBudget("test", 0.2, 5, Duration.ofSeconds(10), new SimpleMeterRegistry()));
+        List<Capability> capabilities = new ArrayList<>(
+                List.of(bulkheadCapability, limitCapability, deadlineCapability, budgetCapability));
+        AnnotationAwareOrderComparator.sort(capabilities);
+        assertThat(capabilities)
+                .containsExactly(deadlineCapability, limitCapability, budgetCapability, bulkheadCapability);
+        Client client = (Client) Capability.enrich(slowClient, Client.class, capabilities);
+
+        CompletableFuture<Response> first = CompletableFuture.supplyAsync(() -> execute(client));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> client.execute(REQUEST, new Request.Options()))
+                .isInstanceOf(BulkheadFullException.class);
+        assertThat(limit.getInFlight()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS).status()).isEqualTo(200);
+        assertThat(limit.getInFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reject requests once the bulkhead threads and queue are taken")
+    void shouldRejectRequestsBeyondThreadPoolAndQueue() throws Exception {
+        ThreadPoolBulkhead bulkhead = ThreadPoolBulkhead.of("test", ThreadPoolBulkheadConfig.custom()
+                .coreThreadPoolSize(1)
+                .maxThreadPoolSize(1)
+                .queueCapacity(1)
+                .build());
+        Client client = BulkheadCapability.threadPool(bulkhead).enrich(slowClient);
+
+        CompletableFuture<Response> running = CompletableFuture.supplyAsync(() -> execute(client));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Response> queued = CompletableFuture.supplyAsync(() -> execute(client));
+        while (bulkhead.getMetrics().getQueueDepth() == 0) {
+            Thread.sleep(5);
+        }
+
+        assertThatThrownBy(() -> client.execute(REQUEST, new Request.Options()))
+                .isInstanceOf(BulkheadFullException.class);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS).status()).isEqualTo(200);
+        assertThat(queued.get(5, TimeUnit.SECONDS).status()).isEqualTo(200);
+        bulkhead.close();
+    }
+
+    @Test
+    @DisplayName("Should rethrow I/O failures from the bulkhead thread unchanged")
+    void shouldRethrowIoFailuresFromThreadPool() throws Exception {
+        ThreadPoolBulkhead bulkhead = ThreadPoolBulkhead.ofDefaults("test");
+        Client failingClient = (request, options) -> {
+            throw new IOException("connection reset");
+        };
+        Client client = BulkheadCapability.threadPool(bulkhead).enrich(failingClient);
+
+        assertThatThrownBy(() -> client.execute(REQUEST, new Request.Options()))
+                .isInstanceOf(IOException.class)
+                .hasMessage("connection reset");
+        bulkhead.close();
+    }
+
+    private static Response execute(Client client) {
+        try {
+            return client.execute(REQUEST, new Request.Options());
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static Response response(Request request) {
+        return Response.builder()
+                .status(200)
+                .request(request)
+                .headers(Map.of())
+                .body(new byte[0])
+                .build();
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.profileservice.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.pool.PoolReusePolicy;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ConnectionPrewarmer Tests")
+class ConnectionPrewarmerTest {
+
+    private ServerSocket server;
+    private final List<Socket> accepted = new CopyOnWriteArrayList<>();
+    private SimpleMeterRegistry meterRegistry;
+    private InstrumentedConnectionManager connectionManager;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new ServerSocket(0);
+        Thread.ofVirtual().start(() -> {
+            while (!server.isClosed()) {
+                try {
+                    accepted.add(server.accept());
+                } catch (IOException ignored) {
+                    return;
+                }
+            }
+        });
+        meterRegistry = new SimpleMeterRegistry();
+        connectionManager = new InstrumentedConnectionManager("test",
+                PoolConcurrencyPolicy.STRICT, PoolReusePolicy.LIFO, TimeValue.NEG_ONE_MILLISECOND, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        connectionManager.close();
+        server.close();
+        for (Socket socket : accepted) {
+            socket.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should open distinct connections and return them to the pool as available")
+    void shouldOpenDistinctConnectionsAndPoolThem() {
+        URI target = URI.create("http://localhost:" + server.getLocalPort());
+
+        int opened = new ConnectionPrewarmer(connectionManager)
+                .prewarm(target, 3, Timeout.ofSeconds(2), TimeValue.ofSeconds(30));
+
+        assertThat(opened).isEqualTo(3);
+        assertThat(connectionManager.getTotalStats().getAvailable()).isEqualTo(3);
+        assertThat(connectionManager.getTotalStats().getLeased()).isZero();
+        assertThat(meterRegistry.get("httpcomponents.httpclient.pool.wait").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should report how many connections were opened when the target is unreachable")
+    void shouldReportPartialPrewarmWhenTargetIsUnreachable() {
+        int opened = new ConnectionPrewarmer(connectionManager)
+                .prewarm(URI.create("http://localhost:1"), 2, Timeout.ofSeconds(1), TimeValue.ofSeconds(30));
+
+        assertThat(opened).isZero();
+        assertThat(connectionManager.getTotalStats().getLeased()).isZero();
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.profileservice.client;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("DeadlineCapability Tests")
+class DeadlineCapabilityTest {
+
+    private static final Request REQUEST = Request.create(Request.HttpMethod.GET, "http://localhost/users/1",
+            Map.of("Accept", List.of("application/json")), null, StandardCharsets.UTF_8, null);
+
+    private final AtomicReference<Request> sentRequest = new AtomicReference<>();
+    private final AtomicReference<Request.Options> sentOptions = new AtomicReference<>();
+    private final Client transport = (request, options) -> {
+        sentRequest.set(request);
+        sentOptions.set(options);
+        return Response.builder().status(200).request(request).headers(Map.of()).build();
+    };
+
+    @Test
+    @DisplayName("Should send the budget as a header and wait no longer than the budget")
+    void shouldSendBudgetAndUseItAsReadTimeout() throws Exception {
+        Client client = new DeadlineCapability(Duration.ofMillis(800)).enrich(transport);
+
+        client.execute(REQUEST, new Request.Options(1, TimeUnit.SECONDS, 60, TimeUnit.SECONDS, true));
+
+        assertThat(sentRequest.get().headers().get(DeadlineCapability.HEADER)).containsExactly("800");
+        assertThat(sentRequest.get().headers().get("Accept")).containsExactly("application/json");
+        assertThat(sentOptions.get().readTimeoutMillis()).isEqualTo(800);
+        assertThat(sentOptions.get().connectTimeoutMillis()).isEqualTo(1000);
+    }
+
+    @Test
+    @DisplayName("Should send the read timeout when it is shorter than the budget")
+    void shouldSendShorterReadTimeout() throws Exception {
+        Client client = new DeadlineCapability(Duration.ofSeconds(2)).enrich(transport);
+
+        client.execute(REQUEST, new Request.Options(1, TimeUnit.SECONDS, 500, TimeUnit.MILLISECONDS, true));
+
+        assertThat(sentRequest.get().headers().get(DeadlineCapability.HEADER)).containsExactly("500");
+        assertThat(sentOptions.get().readTimeoutMillis()).isEqualTo(500);
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.profileservice.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Response;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("PowerOfTwoChoicesLoadBalancer Tests")
+class PowerOfTwoChoicesLoadBalancerTest {
+
+    private static final ServiceInstance FIRST = new DefaultServiceInstance("user-service-0", "user-service", "localhost", 8081, false);
+    private static final ServiceInstance SECOND = new DefaultServiceInstance("user-service-1", "user-service", "localhost", 8083, false);
+    private static final List<ServiceInstance> INSTANCES = List.of(FIRST, SECOND);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("Should send requests to the instance with fewer requests outstanding")
+    void shouldPreferLessLoadedInstance() {
+        PowerOfTwoChoicesLoadBalancer loadBalancer = newLoadBalancer(Duration.ofSeconds(30));
+        start(loadBalancer, FIRST);
+        start(loadBalancer, FIRST);
+
+        IntStream.range(0, 20).forEach(i ->
+                assertThat(loadBalancer.choose(INSTANCES).getServer()).isEqualTo(SECOND));
+    }
+
+    @Test
+    @DisplayName("Should eject an instance after consecutive failures and take it back after the ejection")
+    void shouldEjectFailingInstanceAndRecover() throws Exception {
+        PowerOfTwoChoicesLoadBalancer loadBalancer = newLoadBalancer(Duration.ofMillis(100));
+        for (int i = 0; i < 3; i++) {
+            fail(loadBalancer, FIRST);
+        }
+
+        IntStream.range(0, 20).forEach(i ->
+                assertThat(loadBalancer.choose(INSTANCES).getServer()).isEqualTo(SECOND));
+        assertThat(meterRegistry.get("user.loadbalancer.ejections").tag("instance", "localhost:8081").counter().count())
+                .isEqualTo(1.0);
+
+        Thread.sleep(150);
+        start(loadBalancer, SECOND);
+
+        assertThat(loadBalancer.choose(INSTANCES).getServer()).isEqualTo(FIRST);
+    }
+
+    @Test
+    @DisplayName("Should keep using all instances when every one of them is ejected")
+    void shouldFailOpenWhenAllInstancesAreEjected() {
+        PowerOfTwoChoicesLoadBalancer loadBalancer = newLoadBalancer(Duration.ofSeconds(30));
+        for (int i = 0; i < 3; i++) {
+            fail(loadBalancer, FIRST);
+            fail(loadBalancer, SECOND);
+        }
+
+        Response<ServiceInstance> response = loadBalancer.choose(INSTANCES);
+
+        assertThat(response.hasServer()).isTrue();
+        assertThat(response.getServer()).isIn(FIRST, SECOND);
+    }
+
+    @SuppressWarnings("unchecked")
+    private PowerOfTwoChoicesLoadBalancer newLoadBalancer(Duration ejectionDuration) {
+        return new PowerOfTwoChoicesLoadBalancer("user-service", mock(ObjectProvider.class), 3,
+                ejectionDuration, meterRegistry);
+    }
+
+    private static void start(PowerOfTwoChoicesLoadBalancer loadBalancer, ServiceInstance instance) {
+        loadBalancer.onStartRequest(new DefaultRequest<>(), new DefaultResponse(instance));
+    }
+
+    private static void fail(PowerOfTwoChoicesLoadBalancer loadBalancer, ServiceInstance instance) {
+        start(loadBalancer, instance);
+        loadBalancer.onComplete(new CompletionContext<>(CompletionContext.Status.FAILED,
+                new IOException("Connection refused"), new DefaultRequest<>(), new DefaultResponse(instance)));
+    }
+}
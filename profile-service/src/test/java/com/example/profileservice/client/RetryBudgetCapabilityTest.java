@@ -0,0 +1,59 @@
+package com.example.profileservice.client;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("RetryBudgetCapability Tests")
+class RetryBudgetCapabilityTest {
+
+    private static final Request REQUEST = Request.create(Request.HttpMethod.GET, "http://localhost/users/1",
+            Map.of(), null, StandardCharsets.UTF_8, null);
+    private static final Request.Options OPTIONS = new Request.Options(1, TimeUnit.SECONDS, 1, TimeUnit.SECONDS, true);
+
+    private final RetryBudget budget = new RetryBudget("test", 1.0, 0, Duration.ofSeconds(10), new SimpleMeterRegistry());
+
+    @Test
+    @DisplayName("Should deposit for every answer of User Service below 500 except 429")
+    void shouldDepositForAnsweredCalls() throws Exception {
+        execute(200);
+        execute(404);
+        execute(429);
+        execute(503);
+
+        assertThat(budget.tryAcquire()).isTrue();
+        assertThat(budget.tryAcquire()).isTrue();
+        assertThat(budget.tryAcquire()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should not deposit when the call fails before an answer")
+    void shouldNotDepositForFailedCalls() {
+        Client refusing = (request, options) -> {
+            throw new ConnectException("refused");
+        };
+        Client client = new RetryBudgetCapability(budget).enrich(refusing);
+
+        assertThatThrownBy(() -> client.execute(REQUEST, OPTIONS)).isInstanceOf(IOException.class);
+        assertThat(budget.tryAcquire()).isFalse();
+    }
+
+    private void execute(int status) throws IOException {
+        Client transport = (request, options) ->
+                Response.builder().status(status).request(request).headers(Map.of()).build();
+        new RetryBudgetCapability(budget).enrich(transport).execute(REQUEST, OPTIONS);
+    }
+}
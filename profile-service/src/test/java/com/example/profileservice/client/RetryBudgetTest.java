@@ -0,0 +1,61 @@
+package com.example.profileservice.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("RetryBudget Tests")
+class RetryBudgetTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("Should allow retries up to the share of successful calls and deny the rest")
+    void shouldAllowRetriesUpToShareOfSuccesses() {
+        RetryBudget budget = new RetryBudget("test", 0.5, 0, Duration.ofSeconds(10), meterRegistry);
+
+        assertThat(budget.tryAcquire()).isFalse();
+        for (int i = 0; i < 4; i++) {
+            budget.recordSuccess();
+        }
+
+        assertThat(budget.tryAcquire()).isTrue();
+        assertThat(budget.tryAcquire()).isTrue();
+        assertThat(budget.tryAcquire()).isFalse();
+        assertThat(retries("allowed")).isEqualTo(2);
+        assertThat(retries("denied")).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should keep a reserve of retries per second without successful calls")
+    void shouldKeepReserveWithoutSuccesses() {
+        RetryBudget budget = new RetryBudget("test", 0.2, 2, Duration.ofSeconds(1), meterRegistry);
+
+        assertThat(budget.tryAcquire()).isTrue();
+        assertThat(budget.tryAcquire()).isTrue();
+        assertThat(budget.tryAcquire()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should forget successful calls and retries that left the window")
+    void shouldExpireOldSuccessesAndRetries() throws Exception {
+        RetryBudget budget = new RetryBudget("test", 1.0, 0, Duration.ofMillis(200), meterRegistry);
+        budget.recordSuccess();
+
+        assertThat(budget.tryAcquire()).isTrue();
+        assertThat(budget.tryAcquire()).isFalse();
+
+        Thread.sleep(250);
+        assertThat(budget.tryAcquire()).isFalse();
+        budget.recordSuccess();
+        assertThat(budget.tryAcquire()).isTrue();
+    }
+
+    private double retries(String result) {
+        return meterRegistry.get("retry.budget.retries").tag("result", result).counter().count();
+    }
+}
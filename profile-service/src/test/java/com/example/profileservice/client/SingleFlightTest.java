@@ -0,0 +1,159 @@
+package com.example.profileservice.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("SingleFlight Tests")
+class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    private SimpleMeterRegistry meterRegistry;
+    private SingleFlight<Long, String> singleFlight;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlight<>("test", meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should share one in-flight call between concurrent callers of the same key")
+    void shouldCoalesceConcurrentCallsForSameKey() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+        try {
+            List<Future<String>> results = IntStream.range(0, CALLERS)
+                    .mapToObj(i -> executor.submit(() -> singleFlight.execute(1L, () -> {
+                        executions.incrementAndGet();
+                        await(release);
+                        return "user-1";
+                    })))
+                    .toList();
+
+            waitUntilCoalesced(CALLERS - 1);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("user-1");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(executions.get()).isEqualTo(1);
+        assertThat(count("executed")).isEqualTo(1);
+        assertThat(count("coalesced")).isEqualTo(CALLERS - 1);
+    }
+
+    @Test
+    @DisplayName("Should propagate the failure of the shared call and release the key")
+    void shouldPropagateFailureAndReleaseKey() {
+        assertThatThrownBy(() -> singleFlight.execute(1L, () -> {
+            throw new IllegalStateException("boom");
+        }))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("boom");
+
+        assertThat(singleFlight.execute(1L, () -> "recovered")).isEqualTo("recovered");
+        assertThat(count("executed")).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should share one pending future between async callers of the same key")
+    void shouldCoalesceAsyncCallsForSameKey() throws Exception {
+        CompletableFuture<String> response = new CompletableFuture<>();
+        AtomicInteger executions = new AtomicInteger();
+
+        CompletableFuture<String> first = singleFlight.executeAsync(1L, () -> {
+            executions.incrementAndGet();
+            return response;
+        });
+        CompletableFuture<String> second = singleFlight.executeAsync(1L, () -> {
+            executions.incrementAndGet();
+            return CompletableFuture.completedFuture("unexpected");
+        });
+
+        assertThat(first).isNotDone();
+        response.complete("user-1");
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("user-1");
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("user-1");
+        assertThat(executions.get()).isEqualTo(1);
+        assertThat(count("coalesced")).isEqualTo(1);
+
+        assertThat(singleFlight.executeAsync(1L, () -> CompletableFuture.completedFuture("fresh")).join())
+                .isEqualTo("fresh");
+    }
+
+    @Test
+    @DisplayName("Should not let one async caller complete or cancel the future of the others")
+    void shouldIsolateAsyncCallersFromEachOther() throws Exception {
+        CompletableFuture<String> response = new CompletableFuture<>();
+        CompletableFuture<String> first = singleFlight.executeAsync(1L, () -> response);
+        CompletableFuture<String> second = singleFlight.executeAsync(1L, () -> response);
+        CompletableFuture<String> third = singleFlight.executeAsync(1L, () -> response);
+
+        first.cancel(true);
+        second.complete("overridden");
+        response.complete("user-1");
+
+        assertThat(first).isCancelled();
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("overridden");
+        assertThat(third.get(5, TimeUnit.SECONDS)).isEqualTo("user-1");
+    }
+
+    @Test
+    @DisplayName("Should fail async callers with an Error raised by the shared call and release the key")
+    void shouldPropagateAsyncErrorAndReleaseKey() {
+        CompletableFuture<String> response = new CompletableFuture<>();
+        CompletableFuture<String> first = singleFlight.executeAsync(1L, () -> response);
+        CompletableFuture<String> second = singleFlight.executeAsync(1L, () -> response);
+
+        response.completeExceptionally(new StackOverflowError());
+
+        assertThat(first).isCompletedExceptionally();
+        assertThatThrownBy(() -> second.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(StackOverflowError.class);
+        assertThat(singleFlight.executeAsync(1L, () -> CompletableFuture.completedFuture("fresh")).join())
+                .isEqualTo("fresh");
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.get("singleflight.calls")
+                .tag("outcome", outcome)
+                .counter()
+                .count();
+    }
+
+    private void waitUntilCoalesced(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (count("coalesced") < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
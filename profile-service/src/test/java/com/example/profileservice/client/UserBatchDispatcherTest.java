@@ -0,0 +1,154 @@
+package com.example.profileservice.client;
+
+import com.example.profileservice.config.UserBatchProperties;
+import com.example.profileservice.config.UserHedgingProperties;
+import com.example.profileservice.dto.UserBatchDTO;
+import com.example.profileservice.dto.UserBatchRequestDTO;
+import com.example.profileservice.dto.UserDTO;
+import com.example.profileservice.exception.UserNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static com.example.profileservice.util.FakeEntities.userDTOBuilder;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@DisplayName("UserBatchDispatcher Tests")
+class UserBatchDispatcherTest {
+
+    private UserClient userClient;
+    private UserBatchProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private UserRequestHedger hedger;
+    private UserBatchDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        userClient = mock(UserClient.class);
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new UserBatchProperties();
+        properties.setWindow(Duration.ofMillis(50));
+        properties.setMaxBatchSize(3);
+        hedger = new UserRequestHedger(new UserHedgingProperties(), meterRegistry, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.destroy();
+        hedger.destroy();
+    }
+
+    @Test
+    @DisplayName("Should resolve lookups made within one window with a single batch call")
+    void shouldResolveLookupsWithinWindowInOneBatch() throws Exception {
+        dispatcher = new UserBatchDispatcher(userClient, hedger, properties, meterRegistry, false);
+        UserDTO first = userDTOBuilder().id(1L).build();
+        UserDTO second = userDTOBuilder().id(2L).build();
+
+        when(userClient.getUsersByIds(any(UserBatchRequestDTO.class)))
+                .thenReturn(new UserBatchDTO(List.of(first, second), List.of()));
+
+        CompletableFuture<UserDTO> firstLookup = dispatcher.load(1L);
+        CompletableFuture<UserDTO> secondLookup = dispatcher.load(2L);
+        CompletableFuture<UserDTO> duplicateLookup = dispatcher.load(1L);
+
+        assertThat(firstLookup.get(5, TimeUnit.SECONDS)).isSameAs(first);
+        assertThat(secondLookup.get(5, TimeUnit.SECONDS)).isSameAs(second);
+        assertThat(duplicateLookup.get(5, TimeUnit.SECONDS)).isSameAs(first);
+
+        ArgumentCaptor<UserBatchRequestDTO> request = ArgumentCaptor.forClass(UserBatchRequestDTO.class);
+        verify(userClient, times(1)).getUsersByIds(request.capture());
+        verify(userClient, never()).getUserById(anyLong());
+        assertThat(request.getValue().getIds()).containsExactly(1L, 2L);
+        assertThat(meterRegistry.get("user.batch.size").summary().max()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("Should flush as soon as the batch is full and fail lookups of missing users")
+    void shouldFlushFullBatchAndFailMissingUsers() {
+        properties.setWindow(Duration.ofSeconds(30));
+        dispatcher = new UserBatchDispatcher(userClient, hedger, properties, meterRegistry, false);
+        UserDTO first = userDTOBuilder().id(1L).build();
+        UserDTO second = userDTOBuilder().id(2L).build();
+
+        when(userClient.getUsersByIds(any(UserBatchRequestDTO.class)))
+                .thenReturn(new UserBatchDTO(List.of(first, second), List.of(3L)));
+
+        CompletableFuture<UserDTO> firstLookup = dispatcher.load(1L);
+        dispatcher.load(2L);
+        CompletableFuture<UserDTO> missingLookup = dispatcher.load(3L);
+
+        assertThat(firstLookup.orTimeout(5, TimeUnit.SECONDS).join()).isSameAs(first);
+        assertThatThrownBy(() -> missingLookup.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(UserNotFoundException.class);
+        assertThat(meterRegistry.get("user.batch.flushes").tag("trigger", "size").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should fail every lookup of a batch with an Error raised by the batch call")
+    void shouldFailLookupsWithErrorOfBatchCall() {
+        dispatcher = new UserBatchDispatcher(userClient, hedger, properties, meterRegistry, false);
+
+        when(userClient.getUsersByIds(any(UserBatchRequestDTO.class))).thenThrow(new StackOverflowError());
+
+        CompletableFuture<UserDTO> first = dispatcher.load(1L);
+        CompletableFuture<UserDTO> second = dispatcher.load(2L);
+
+        assertThatThrownBy(() -> first.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(StackOverflowError.class);
+        assertThatThrownBy(() -> second.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(StackOverflowError.class);
+    }
+
+    @Test
+    @DisplayName("Should fail lookups and interrupt the batch call once the timeout passes")
+    void shouldInterruptBatchCallOnTimeout() throws Exception {
+        properties.setTimeout(Duration.ofMillis(100));
+        dispatcher = new UserBatchDispatcher(userClient, hedger, properties, meterRegistry, false);
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        when(userClient.getUsersByIds(any(UserBatchRequestDTO.class))).thenAnswer(invocation -> {
+            try {
+                Thread.sleep(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException ex) {
+                interrupted.countDown();
+            }
+            return new UserBatchDTO(List.of(), List.of());
+        });
+
+        CompletableFuture<UserDTO> first = dispatcher.load(1L);
+        dispatcher.load(2L);
+
+        assertThatThrownBy(() -> first.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(TimeoutException.class);
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should use the single user endpoint when a batch holds one id")
+    void shouldUseSingleLookupForBatchOfOne() throws Exception {
+        dispatcher = new UserBatchDispatcher(userClient, hedger, properties, meterRegistry, false);
+        UserDTO user = userDTOBuilder().id(7L).build();
+
+        when(userClient.getUserById(7L)).thenReturn(user);
+
+        assertThat(dispatcher.load(7L).get(5, TimeUnit.SECONDS)).isSameAs(user);
+
+        verify(userClient, times(1)).getUserById(7L);
+        verify(userClient, never()).getUsersByIds(any(UserBatchRequestDTO.class));
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.profileservice.client;
+
+import com.example.profileservice.config.UserClientCodecConfig;
+import com.example.profileservice.dto.UserBatchRequestDTO;
+import com.example.profileservice.dto.UserDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.example.profileservice.util.FakeEntities.userDTOBuilder;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("UserClient Smile codec Tests")
+class UserClientSmileCodecTest {
+
+    private final UserClientCodecConfig config = new UserClientCodecConfig();
+    private final ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+
+    @Test
+    @DisplayName("Should encode request bodies as binary Smile")
+    void shouldEncodeRequestBodyAsSmile() throws Exception {
+        RequestTemplate template = new RequestTemplate()
+                .method(Request.HttpMethod.POST)
+                .target("http://user-service")
+                .uri("/users/batch-get");
+
+        config.feignEncoder(new Jackson2ObjectMapperBuilder())
+                .encode(new UserBatchRequestDTO(List.of(1L, 2L)), UserBatchRequestDTO.class, template);
+
+        assertThat(template.headers().get(HttpHeaders.CONTENT_TYPE)).containsExactly("application/x-jackson-smile");
+        assertThat(template.resolve(Map.of()).request().charset()).isNull();
+        assertThat(smileMapper.readValue(template.body(), UserBatchRequestDTO.class).getIds())
+                .containsExactly(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("Should decode Smile and JSON responses by content type")
+    void shouldDecodeSmileAndJsonResponses() throws Exception {
+        UserDTO user = userDTOBuilder().build();
+        var decoder = config.feignDecoder(new Jackson2ObjectMapperBuilder(), new ObjectMapper());
+
+        UserDTO fromSmile = (UserDTO) decoder.decode(
+                response("application/x-jackson-smile", smileMapper.writeValueAsBytes(user)), UserDTO.class);
+        UserDTO fromJson = (UserDTO) decoder.decode(
+                response("application/json", new ObjectMapper().writeValueAsBytes(user)), UserDTO.class);
+
+        assertThat(fromSmile).usingRecursiveComparison().isEqualTo(user);
+        assertThat(fromJson).usingRecursiveComparison().isEqualTo(user);
+    }
+
+    private static Response response(String contentType, byte[] body) {
+        return Response.builder()
+                .status(200)
+                .headers(Map.of(HttpHeaders.CONTENT_TYPE, List.of(contentType)))
+                .request(Request.create(Request.HttpMethod.GET, "/users/1", Map.of(), null, null, null))
+                .body(body)
+                .build();
+    }
+}
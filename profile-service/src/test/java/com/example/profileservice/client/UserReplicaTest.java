@@ -0,0 +1,59 @@
+package com.example.profileservice.client;
+
+import com.example.profileservice.config.UserReplicaProperties;
+import com.example.profileservice.dto.UserDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static com.example.profileservice.util.FakeEntities.userDTOBuilder;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("UserReplica Tests")
+class UserReplicaTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("Should keep a change from the feed over a fetch that started before it")
+    void shouldPreferFeedOverEarlierFetch() {
+        UserReplica replica = newReplica(Duration.ofMinutes(1));
+        replica.synced(true);
+        UserDTO fetched = userDTOBuilder().id(1L).name("Before").build();
+        UserDTO changed = userDTOBuilder().id(1L).name("After").build();
+
+        assertThat(replica.find(1L)).isEmpty();
+        replica.apply(List.of(changed, userDTOBuilder().id(2L).build()));
+        replica.offer(fetched);
+
+        assertThat(replica.find(1L)).containsSame(changed);
+        assertThat(replica.find(2L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should stop serving until the feed is read to its end and again once the last sync is too old")
+    void shouldServeOnlyWhileInSync() throws Exception {
+        UserReplica replica = newReplica(Duration.ofMillis(50));
+        UserDTO user = userDTOBuilder().id(1L).build();
+        replica.find(1L);
+        replica.offer(user);
+
+        replica.synced(false);
+        assertThat(replica.find(1L)).isEmpty();
+
+        replica.synced(true);
+        assertThat(replica.find(1L)).containsSame(user);
+
+        Thread.sleep(100);
+        assertThat(replica.find(1L)).isEmpty();
+    }
+
+    private UserReplica newReplica(Duration maxStaleness) {
+        UserReplicaProperties properties = new UserReplicaProperties();
+        properties.setMaxStaleness(maxStaleness);
+        return new UserReplica(properties, meterRegistry);
+    }
+}
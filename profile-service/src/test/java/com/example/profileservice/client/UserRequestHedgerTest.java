@@ -0,0 +1,139 @@
+package com.example.profileservice.client;
+
+import com.example.profileservice.config.UserHedgingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("UserRequestHedger Tests")
+class UserRequestHedgerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserHedgingProperties properties;
+    private UserRequestHedger hedger;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new UserHedgingProperties();
+        properties.setEnabled(true);
+        properties.setDelay(Duration.ofMillis(20));
+        properties.setThreads(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        hedger.destroy();
+    }
+
+    @Test
+    @DisplayName("Should answer from the hedge and cancel the slow first request")
+    void shouldAnswerFromHedgeAndCancelSlowRequest() throws Exception {
+        hedger = new UserRequestHedger(properties, meterRegistry, false);
+        CountDownLatch firstCancelled = new CountDownLatch(1);
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = hedger.execute(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                try {
+                    Thread.sleep(5_000);
+                } catch (InterruptedException ex) {
+                    firstCancelled.countDown();
+                }
+                return "slow";
+            }
+            return "hedge";
+        }).get(2, TimeUnit.SECONDS);
+
+        assertThat(result).isEqualTo("hedge");
+        assertThat(firstCancelled.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(hedgeCount("sent")).isEqualTo(1);
+        assertThat(meterRegistry.get("user.hedging.wins").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should fail the call with an Error raised by the request")
+    void shouldFailWithErrorOfRequest() {
+        hedger = new UserRequestHedger(properties, meterRegistry, false);
+
+        CompletableFuture<String> result = hedger.execute(() -> {
+            throw new StackOverflowError();
+        });
+
+        assertThatThrownBy(() -> result.get(2, TimeUnit.SECONDS)).hasCauseInstanceOf(StackOverflowError.class);
+    }
+
+    @Test
+    @DisplayName("Should fail the call when its request cannot be submitted")
+    void shouldFailWhenRequestIsRejected() {
+        hedger = new UserRequestHedger(properties, meterRegistry, false);
+        hedger.destroy();
+
+        CompletableFuture<String> result = hedger.execute(() -> "unreachable");
+
+        assertThatThrownBy(() -> result.get(2, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(RejectedExecutionException.class);
+    }
+
+    @Test
+    @DisplayName("Should not hedge calls that answer before the delay")
+    void shouldNotHedgeFastCalls() throws Exception {
+        // long enough that a slow start of the first attempt on a busy machine does not trigger a hedge
+        properties.setDelay(Duration.ofMillis(200));
+        hedger = new UserRequestHedger(properties, meterRegistry, false);
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThat(hedger.execute(() -> {
+            attempts.incrementAndGet();
+            return "fast";
+        }).get(2, TimeUnit.SECONDS)).isEqualTo("fast");
+
+        Thread.sleep(300);
+        assertThat(attempts.get()).isEqualTo(1);
+        assertThat(hedgeCount("sent")).isZero();
+    }
+
+    @Test
+    @DisplayName("Should skip hedges once the per-second budget is spent")
+    void shouldSkipHedgesBeyondBudget() throws Exception {
+        properties.setBudgetPerSecond(1);
+        hedger = new UserRequestHedger(properties, meterRegistry, false);
+        Supplier<String> slowCall = () -> {
+            sleep(100);
+            return "slow";
+        };
+
+        CompletableFuture<String> first = hedger.execute(slowCall);
+        CompletableFuture<String> second = hedger.execute(slowCall);
+
+        assertThat(first.get(2, TimeUnit.SECONDS)).isEqualTo("slow");
+        assertThat(second.get(2, TimeUnit.SECONDS)).isEqualTo("slow");
+        assertThat(hedgeCount("sent")).isEqualTo(1);
+        assertThat(hedgeCount("rejected")).isEqualTo(1);
+    }
+
+    private double hedgeCount(String result) {
+        return meterRegistry.get("user.hedging.hedges").tag("result", result).counter().count();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,28 +1,61 @@
 package com.example.profileservice.service;
 
+import com.example.profileservice.client.AsyncUserClient;
+import com.example.profileservice.client.ConcurrencyLimitExceededException;
+import com.example.profileservice.client.UserBatchDispatcher;
 import com.example.profileservice.client.UserClient;
+import com.example.profileservice.client.UserReplica;
+import com.example.profileservice.config.UserBatchProperties;
+import com.example.profileservice.config.UserCacheProperties;
+import com.example.profileservice.config.UserReplicaProperties;
+import com.example.profileservice.config.UserWarmUpProperties;
 import com.example.profileservice.dto.ProfileRequestDTO;
 import com.example.profileservice.dto.ProfileResponseDTO;
+import com.example.profileservice.dto.UserBatchDTO;
+import com.example.profileservice.dto.UserBatchRequestDTO;
 import com.example.profileservice.dto.UserDTO;
 import com.example.profileservice.dto.UserProfileDTO;
 import com.example.profileservice.entity.Profile;
 import com.example.profileservice.exception.ProfileNotFoundException;
 import com.example.profileservice.exception.UserNotFoundException;
 import com.example.profileservice.repository.ProfileRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
 import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import feign.RetryableException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.sql.DataSource;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
 import static com.example.profileservice.util.FakeEntities.profileRequestDTOBuilder;
 import static com.example.profileservice.util.FakeEntities.userDTOBuilder;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
@@ -38,12 +71,35 @@ class ProfileServiceIntegrationTest {
     @Autowired
     private ProfileRepository profileRepository;
 
+    @Autowired
+    private UserLookupService userLookupService;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private AsyncUserClient asyncUserClient;
+
+    @Autowired
+    private UserBatchDispatcher batchDispatcher;
+
+    @Autowired
+    private UserBatchProperties batchProperties;
+
+    @Autowired
+    private UserReplica userReplica;
+
     @MockBean
     private UserClient userClient;
 
     @BeforeEach
     void setUp() {
         profileRepository.deleteAll();
+        userLookupService.evictAll();
+        circuitBreakerRegistry.circuitBreaker("userService").reset();
         reset(userClient);
     }
 
@@ -79,6 +135,28 @@ class ProfileServiceIntegrationTest {
         verify(userClient, times(1)).getUserById(user.getId());
     }
 
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Should not hold a database connection while User Service is called")
+    void shouldNotHoldConnectionDuringUserLookup() throws Exception {
+        UserDTO user = userDTOBuilder().build();
+        HikariPoolMXBean pool = dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+        List<Integer> activeConnectionsDuringCall = new CopyOnWriteArrayList<>();
+
+        when(userClient.getUserById(user.getId())).thenAnswer(invocation -> {
+            activeConnectionsDuringCall.add(pool.getActiveConnections());
+            return user;
+        });
+
+        ProfileResponseDTO savedProfile = profileService.create(profileRequestDTOBuilder()
+                .userId(user.getId())
+                .build());
+        userLookupService.evict(user.getId());
+        profileService.getUserProfile(savedProfile.getId());
+
+        assertThat(activeConnectionsDuringCall).containsExactly(0, 0);
+    }
+
     @Test
     @DisplayName("Should throw UserNotFoundException ")
     void shouldThrowExceptionWhenUserNotFound() {
@@ -127,9 +205,174 @@ class ProfileServiceIntegrationTest {
         assertThat(retrievedProfile.getUser().getName()).isEqualTo(user.getName());
         assertThat(retrievedProfile.getUser().getEmail()).isEqualTo(user.getEmail());
 
+        verify(userClient, times(1)).getUserById(user.getId());
+    }
+
+    @Test
+    @DisplayName("Should serve repeated user lookups from the local cache")
+    void shouldServeRepeatedLookupsFromCache() {
+        UserDTO user = userDTOBuilder().build();
+        when(userClient.getUserById(user.getId())).thenReturn(user);
+
+        ProfileResponseDTO savedProfile = profileService.create(profileRequestDTOBuilder()
+                .userId(user.getId())
+                .build());
+
+        profileService.getUserProfile(savedProfile.getId());
+        profileService.getUserProfile(savedProfile.getId());
+
+        verify(userClient, times(1)).getUserById(user.getId());
+
+        userLookupService.evict(user.getId());
+        profileService.getUserProfile(savedProfile.getId());
+
         verify(userClient, times(2)).getUserById(user.getId());
     }
 
+    @Test
+    @DisplayName("Should call User Service on the caller's thread for unbatched, unhedged lookups")
+    void shouldFetchUncachedUserOnCallerThread() {
+        UserDTO user = userDTOBuilder().build();
+        UserBatchProperties unbatched = new UserBatchProperties();
+        unbatched.setEnabled(false);
+        UserCacheProperties uncached = new UserCacheProperties();
+        uncached.setEnabled(false);
+        UserLookupService lookupService = new UserLookupService(
+                asyncUserClient, batchDispatcher, unbatched, userReplica, uncached, new SimpleMeterRegistry());
+        List<Thread> callingThreads = new CopyOnWriteArrayList<>();
+        when(userClient.getUserById(user.getId())).thenAnswer(invocation -> {
+            callingThreads.add(Thread.currentThread());
+            return user;
+        });
+
+        assertThat(lookupService.getUserById(user.getId())).isSameAs(user);
+        assertThat(callingThreads).containsExactly(Thread.currentThread());
+        when(userClient.getUserById(user.getId())).thenThrow(FeignException.NotFound.class);
+        assertThatThrownBy(() -> lookupService.getUserById(user.getId()))
+                .isInstanceOf(UserNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Should revalidate cached users past the soft TTL with their ETag")
+    void shouldRevalidateCachedUsersWithEtag() throws Exception {
+        UserDTO user = userDTOBuilder().build();
+        UserCacheProperties cacheProperties = new UserCacheProperties();
+        cacheProperties.setRefreshAfterWrite(Duration.ofMillis(1));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        UserLookupService lookupService = new UserLookupService(
+                asyncUserClient, batchDispatcher, batchProperties, userReplica, cacheProperties, meterRegistry);
+
+        when(userClient.getUserById(user.getId())).thenReturn(user);
+        when(userClient.getUserByIdIfNoneMatch(user.getId(), null))
+                .thenReturn(ResponseEntity.ok().eTag("\"0\"").body(user));
+        when(userClient.getUserByIdIfNoneMatch(user.getId(), "\"0\""))
+                .thenThrow(notModified());
+
+        lookupService.getUserById(user.getId());
+        awaitRevalidation(lookupService, user.getId(), meterRegistry, "modified");
+        awaitRevalidation(lookupService, user.getId(), meterRegistry, "not_modified");
+
+        assertThat(lookupService.getUserById(user.getId())).isSameAs(user);
+        verify(userClient, times(1)).getUserById(user.getId());
+        verify(userClient, atLeastOnce()).getUserByIdIfNoneMatch(user.getId(), "\"0\"");
+    }
+
+    @Test
+    @DisplayName("Should fall back without retrying when the bulkhead rejects the call")
+    void shouldFallBackWithoutRetryWhenBulkheadIsFull() {
+        UserDTO user = userDTOBuilder().build();
+        when(userClient.getUserById(user.getId()))
+                .thenThrow(BulkheadFullException.createBulkheadFullException(Bulkhead.ofDefaults("userService")));
+
+        assertThatThrownBy(() -> profileService.create(profileRequestDTOBuilder()
+                .userId(user.getId())
+                .build()))
+                .hasMessageContaining("User service is not available right now")
+                .hasCauseInstanceOf(BulkheadFullException.class);
+
+        verify(userClient, times(1)).getUserById(user.getId());
+    }
+
+    @Test
+    @DisplayName("Should keep the circuit closed when the bulkhead rejects calls")
+    void shouldNotOpenCircuitWhenBulkheadIsFull() {
+        UserDTO user = userDTOBuilder().build();
+        when(userClient.getUserById(user.getId()))
+                .thenThrow(BulkheadFullException.createBulkheadFullException(Bulkhead.ofDefaults("userService")));
+
+        for (int i = 0; i < 10; i++) {
+            assertThatThrownBy(() -> profileService.create(profileRequestDTOBuilder()
+                    .userId(user.getId())
+                    .build()))
+                    .hasCauseInstanceOf(BulkheadFullException.class);
+        }
+
+        assertThat(circuitBreakerRegistry.circuitBreaker("userService").getState())
+                .isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("Should fall back without retrying when the concurrency limit rejects the lookup")
+    void shouldFallBackWithoutRetryWhenConcurrencyLimitIsReached() {
+        UserDTO user = userDTOBuilder().build();
+        when(userClient.getUserById(user.getId())).thenReturn(user);
+        ProfileResponseDTO savedProfile = profileService.create(profileRequestDTOBuilder()
+                .userId(user.getId())
+                .build());
+        userLookupService.evict(user.getId());
+        reset(userClient);
+
+        when(userClient.getUserById(user.getId()))
+                .thenThrow(new ConcurrencyLimitExceededException("userService", 20));
+
+        assertThatThrownBy(() -> profileService.getUserProfile(savedProfile.getId()))
+                .hasMessageContaining("Cannot load user profile")
+                .hasCauseInstanceOf(ConcurrencyLimitExceededException.class);
+
+        verify(userClient, times(1)).getUserById(user.getId());
+    }
+
+    @Test
+    @DisplayName("Should keep the circuit closed when the concurrency limit rejects calls")
+    void shouldNotOpenCircuitWhenConcurrencyLimitIsReached() {
+        UserDTO user = userDTOBuilder().build();
+        when(userClient.getUserById(user.getId()))
+                .thenThrow(new ConcurrencyLimitExceededException("userService", 20));
+
+        for (int i = 0; i < 10; i++) {
+            assertThatThrownBy(() -> profileService.create(profileRequestDTOBuilder()
+                    .userId(user.getId())
+                    .build()))
+                    .hasCauseInstanceOf(ConcurrencyLimitExceededException.class);
+        }
+
+        assertThat(circuitBreakerRegistry.circuitBreaker("userService").getState())
+                .isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("Should serve the last known user marked as stale while the circuit is open")
+    void shouldServeStaleUserWhileCircuitIsOpen() {
+        UserDTO user = userDTOBuilder().build();
+        when(userClient.getUserById(user.getId())).thenReturn(user);
+        ProfileResponseDTO savedProfile = profileService.create(profileRequestDTOBuilder()
+                .userId(user.getId())
+                .build());
+
+        circuitBreakerRegistry.circuitBreaker("userService").transitionToOpenState();
+        UserProfileDTO userProfile = profileService.getUserProfile(savedProfile.getId());
+
+        assertThat(userProfile.getProfileId()).isEqualTo(savedProfile.getId());
+        assertThat(userProfile.getUser().getEmail()).isEqualTo(user.getEmail());
+        assertThat(userProfile.getStaleUserFetchedAt()).isNotNull();
+        verify(userClient, times(1)).getUserById(user.getId());
+
+        userLookupService.evict(user.getId());
+        assertThatThrownBy(() -> profileService.getUserProfile(savedProfile.getId()))
+                .hasMessageContaining("User service is not available right now")
+                .hasCauseInstanceOf(CallNotPermittedException.class);
+    }
+
     @Test
     @DisplayName("Should throw ProfileNotFoundException when profile id does not exist")
     void shouldThrowExceptionWhenProfileNotFound() {
@@ -155,6 +398,7 @@ class ProfileServiceIntegrationTest {
 
         ProfileResponseDTO savedProfile = profileService.create(request);
         Long profileId = savedProfile.getId();
+        userLookupService.evict(user.getId());
 
         when(userClient.getUserById(user.getId()))
                 .thenThrow(FeignException.NotFound.class);
@@ -166,5 +410,156 @@ class ProfileServiceIntegrationTest {
 
         verify(userClient, times(2)).getUserById(user.getId());
     }
-}
 
+    @Test
+    @DisplayName("Should retrieve user profile asynchronously when profile and user exist")
+    void shouldGetUserProfileAsyncSuccessfully() throws Exception {
+        UserDTO user = userDTOBuilder().build();
+        when(userClient.getUserById(user.getId())).thenReturn(user);
+
+        ProfileResponseDTO savedProfile = profileService.create(profileRequestDTOBuilder()
+                .userId(user.getId())
+                .build());
+        userLookupService.evict(user.getId());
+
+        UserProfileDTO retrievedProfile = profileService.getUserProfileAsync(savedProfile.getId())
+                .get(5, TimeUnit.SECONDS);
+
+        assertThat(retrievedProfile.getProfileId()).isEqualTo(savedProfile.getId());
+        assertThat(retrievedProfile.getUser().getId()).isEqualTo(user.getId());
+        assertThat(retrievedProfile.getUser().getEmail()).isEqualTo(user.getEmail());
+
+        verify(userClient, times(2)).getUserById(user.getId());
+    }
+
+    @Test
+    @DisplayName("Should fail the async lookup with UserNotFoundException without retrying")
+    void shouldFailAsyncLookupWhenUserNotFound() {
+        UserDTO user = userDTOBuilder().build();
+        when(userClient.getUserById(user.getId())).thenReturn(user);
+
+        ProfileResponseDTO savedProfile = profileService.create(profileRequestDTOBuilder()
+                .userId(user.getId())
+                .build());
+        userLookupService.evict(user.getId());
+
+        when(userClient.getUserById(user.getId()))
+                .thenThrow(FeignException.NotFound.class);
+
+        assertThatThrownBy(() -> profileService.getUserProfileAsync(savedProfile.getId()).get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(UserNotFoundException.class);
+
+        verify(userClient, times(2)).getUserById(user.getId());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Should retry and then fall back like the blocking lookup when User Service is unavailable")
+    void shouldFallBackAsyncLookupWhenUserServiceUnavailable() {
+        UserDTO user = userDTOBuilder().build();
+        when(userClient.getUserById(user.getId())).thenReturn(user);
+
+        // committed, so the retries scheduled on other threads can read it
+        ProfileResponseDTO savedProfile = profileService.create(profileRequestDTOBuilder()
+                .userId(user.getId())
+                .build());
+        userLookupService.evict(user.getId());
+
+        when(userClient.getUserById(user.getId()))
+                .thenThrow(RetryableException.class);
+
+        assertThatThrownBy(() -> profileService.getUserProfileAsync(savedProfile.getId()).get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .cause()
+                .hasMessageContaining("User service is not available right now")
+                .hasCauseInstanceOf(RetryableException.class);
+        verify(userClient, times(1 + 3)).getUserById(user.getId());
+
+        // the cache drops the failed future only after its callers have been notified
+        userLookupService.evict(user.getId());
+        circuitBreakerRegistry.circuitBreaker("userService").reset();
+        assertThatThrownBy(() -> profileService.getUserProfile(savedProfile.getId()))
+                .hasMessageContaining("User service is not available right now")
+                .hasCauseInstanceOf(RetryableException.class);
+
+        verify(userClient, times(1 + 3 + 3)).getUserById(user.getId());
+    }
+
+    @Test
+    @DisplayName("Should serve replicated users locally and pick up their changes from the feed")
+    void shouldServeReplicatedUsersLocally() {
+        UserDTO user = userDTOBuilder().build();
+        UserDTO renamed = userDTOBuilder().id(user.getId()).name("Renamed").build();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        UserReplica replica = new UserReplica(new UserReplicaProperties(), meterRegistry);
+        UserLookupService lookupService = new UserLookupService(
+                asyncUserClient, batchDispatcher, batchProperties, replica, new UserCacheProperties(), meterRegistry);
+        replica.synced(true);
+
+        when(userClient.getUserById(user.getId())).thenReturn(user);
+
+        assertThat(lookupService.getUserById(user.getId())).isSameAs(user);
+        assertThat(lookupService.getUserById(user.getId())).isSameAs(user);
+        verify(userClient, times(1)).getUserById(user.getId());
+
+        replica.apply(List.of(renamed));
+
+        assertThat(lookupService.getUserByIdAsync(user.getId()).join().getName()).isEqualTo("Renamed");
+        assertThat(meterRegistry.get("user.replica.reads").tag("result", "hit").counter().count()).isEqualTo(2.0);
+        verify(userClient, times(1)).getUserById(user.getId());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Should warm up the users referenced by profiles in batches")
+    void shouldWarmUpUsersReferencedByProfiles() throws Exception {
+        List<UserDTO> users = List.of(userDTOBuilder().id(1L).build(),
+                userDTOBuilder().id(2L).build(),
+                userDTOBuilder().id(3L).build());
+        for (UserDTO user : users) {
+            when(userClient.getUserById(user.getId())).thenReturn(user);
+            profileService.create(profileRequestDTOBuilder().userId(user.getId()).build());
+        }
+        userLookupService.evictAll();
+        reset(userClient);
+        HikariPoolMXBean pool = dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+        List<Integer> activeConnections = new CopyOnWriteArrayList<>();
+        when(userClient.getUsersByIds(any(UserBatchRequestDTO.class))).thenAnswer(invocation -> {
+            activeConnections.add(pool.getActiveConnections());
+            List<Long> ids = invocation.<UserBatchRequestDTO>getArgument(0).getIds();
+            return new UserBatchDTO(users.stream().filter(user -> ids.contains(user.getId())).toList(), List.of());
+        });
+        UserWarmUpProperties properties = new UserWarmUpProperties();
+        properties.setBatchSize(2);
+        properties.setReadyFraction(1.0);
+
+        new UserCacheWarmer(profileRepository, userLookupService, properties).run(null);
+
+        for (UserDTO user : users) {
+            assertThat(userLookupService.getUserById(user.getId())).isSameAs(user);
+        }
+        verify(userClient, times(2)).getUsersByIds(any(UserBatchRequestDTO.class));
+        verify(userClient, never()).getUserById(anyLong());
+        // the ids are read before the batches go out, so no connection is held meanwhile
+        assertThat(activeConnections).containsOnly(0);
+    }
+
+    private static void awaitRevalidation(UserLookupService lookupService, Long userId,
+                                          SimpleMeterRegistry meterRegistry, String result) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("user.cache.revalidations").tag("result", result).counter().count() == 0) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(5);
+            lookupService.getUserById(userId);
+        }
+    }
+
+    private static FeignException notModified() {
+        return FeignException.errorStatus("UserClient#getUserByIdIfNoneMatch", Response.builder()
+                .status(304)
+                .headers(Map.of())
+                .request(Request.create(Request.HttpMethod.GET, "/users/1", Map.of(), null, null, null))
+                .build());
+    }
+}
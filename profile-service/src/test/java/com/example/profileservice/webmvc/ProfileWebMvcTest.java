@@ -16,17 +16,25 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
 
 import static com.example.profileservice.util.FakeEntities.*;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = ProfileController.class)
@@ -201,11 +209,12 @@ class ProfileWebMvcTest {
         UserProfileDTO expected = userProfileDTOBuilder().build();
         Long profileId = expected.getProfileId();
 
-        when(profileService.getUserProfile(profileId)).thenReturn(expected);
+        when(profileService.getUserProfileAsync(profileId)).thenReturn(CompletableFuture.completedFuture(expected));
 
-        String json = mockMvc.perform(get("/profiles/{id}/with-user", profileId))
+        String json = mockMvc.perform(asyncDispatch(startAsync(profileId)))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().doesNotExist(HttpHeaders.WARNING))
                 .andReturn()
                 .getResponse()
                 .getContentAsString();
@@ -217,16 +226,36 @@ class ProfileWebMvcTest {
                 .usingRecursiveComparison()
                 .isEqualTo(expected);
 
-        verify(profileService, times(1)).getUserProfile(profileId);
+        verify(profileService, times(1)).getUserProfileAsync(profileId);
+    }
+
+    @Test
+    @DisplayName("GET /profiles/{id} - should mark a profile with stale user data")
+    void shouldMarkProfileWithStaleUser() throws Exception {
+        UserProfileDTO expected = userProfileDTOBuilder().build();
+        expected.setStaleUserFetchedAt(Instant.parse("2024-05-01T10:15:30Z"));
+        Long profileId = expected.getProfileId();
+
+        when(profileService.getUserProfileAsync(profileId)).thenReturn(CompletableFuture.completedFuture(expected));
+
+        String json = mockMvc.perform(asyncDispatch(startAsync(profileId)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.WARNING, "110 - \"Response is Stale\""))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertThat(objectMapper.readTree(json).get("staleUserFetchedAt").asText()).isEqualTo("2024-05-01T10:15:30Z");
     }
 
     @Test
     @DisplayName("GET /profiles/{id} - should return 404 when profile not found")
     void shouldReturn404WhenProfileNotFound() throws Exception {
         Long id = 999L;
-        when(profileService.getUserProfile(id)).thenThrow(new ProfileNotFoundException(id));
+        when(profileService.getUserProfileAsync(id))
+                .thenReturn(CompletableFuture.failedFuture(new ProfileNotFoundException(id)));
 
-        String json = mockMvc.perform(get("/profiles/{id}/with-user", id))
+        String json = mockMvc.perform(asyncDispatch(startAsync(id)))
                 .andExpect(status().isNotFound())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andReturn()
@@ -238,7 +267,7 @@ class ProfileWebMvcTest {
         assertThat(root.get("error").asText()).isEqualTo("Not Found");
         assertThat(root.get("message").asText()).isEqualTo("Profile with id 999 not found");
 
-        verify(profileService, times(1)).getUserProfile(id);
+        verify(profileService, times(1)).getUserProfileAsync(id);
     }
 
     @Test
@@ -247,10 +276,10 @@ class ProfileWebMvcTest {
         Long profileId = 1L;
         Long userId = 999L;
 
-        when(profileService.getUserProfile(profileId))
-                .thenThrow(new UserNotFoundException(userId));
+        when(profileService.getUserProfileAsync(profileId))
+                .thenReturn(CompletableFuture.failedFuture(new UserNotFoundException(userId)));
 
-        String json = mockMvc.perform(get("/profiles/{id}/with-user", profileId))
+        String json = mockMvc.perform(asyncDispatch(startAsync(profileId)))
                 .andExpect(status().isNotFound())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andReturn()
@@ -262,7 +291,12 @@ class ProfileWebMvcTest {
         assertThat(root.get("error").asText()).isEqualTo("Not Found");
         assertThat(root.get("message").asText()).isEqualTo("User with id 999 not found");
 
-        verify(profileService, times(1)).getUserProfile(profileId);
+        verify(profileService, times(1)).getUserProfileAsync(profileId);
     }
-}
 
+    private MvcResult startAsync(Long profileId) throws Exception {
+        return mockMvc.perform(get("/profiles/{id}/with-user", profileId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+}
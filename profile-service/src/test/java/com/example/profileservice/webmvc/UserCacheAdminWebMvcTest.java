@@ -0,0 +1,49 @@
+package com.example.profileservice.webmvc;
+
+import com.example.profileservice.controller.UserCacheAdminController;
+import com.example.profileservice.exception.GlobalExceptionHandler;
+import com.example.profileservice.service.UserLookupService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = UserCacheAdminController.class)
+@Import(GlobalExceptionHandler.class)
+@ActiveProfiles("web-test")
+@DisplayName("UserCacheAdminController WebMvc Tests")
+class UserCacheAdminWebMvcTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private UserLookupService userLookupService;
+
+    @Test
+    @DisplayName("DELETE /admin/user-cache/{userId} - evict one user")
+    void shouldEvictSingleUser() throws Exception {
+        mockMvc.perform(delete("/admin/user-cache/{userId}", 42L))
+                .andExpect(status().isNoContent());
+
+        verify(userLookupService, times(1)).evict(42L);
+    }
+
+    @Test
+    @DisplayName("DELETE /admin/user-cache - evict all users")
+    void shouldEvictAllUsers() throws Exception {
+        mockMvc.perform(delete("/admin/user-cache"))
+                .andExpect(status().isNoContent());
+
+        verify(userLookupService, times(1)).evictAll();
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.userservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Sizing of the in-memory Bloom filter of registered emails.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "user-email-filter")
+public class EmailFilterProperties {
+
+    /**
+     * Whether new emails are checked against the filter before the database.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Emails the filter is sized for. At startup it is sized for at least twice the emails
+     * already stored; past this many the false positive rate rises above the target.
+     */
+    private long expectedInsertions = 1_000_000;
+
+    /**
+     * Target share of unregistered emails the filter reports as possibly registered, which then
+     * cost a database check.
+     */
+    private double falsePositiveRate = 0.01;
+}
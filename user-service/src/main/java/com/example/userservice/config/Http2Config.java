@@ -0,0 +1,37 @@
+package com.example.userservice.config;
+
+import org.apache.coyote.UpgradeProtocol;
+import org.apache.coyote.http2.Http2Protocol;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Tunes the HTTP/2 protocol that Spring Boot adds to Tomcat when {@code server.http2.enabled} is
+ * set. Without TLS, clients reach it as h2c, either by upgrading an HTTP/1.1 connection or with
+ * prior knowledge; plain HTTP/1.1 clients are unaffected.
+ * <p>
+ * Tomcat executes only 20 streams per connection concurrently by default, which would serialize a
+ * client that multiplexes all its calls over one connection.
+ */
+@Configuration
+@ConditionalOnProperty(value = "server.http2.enabled", havingValue = "true")
+@EnableConfigurationProperties(Http2Properties.class)
+public class Http2Config {
+
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> http2StreamLimitsCustomizer(
+            Http2Properties properties) {
+        return factory -> factory.addConnectorCustomizers(connector -> {
+            for (UpgradeProtocol upgradeProtocol : connector.findUpgradeProtocols()) {
+                if (upgradeProtocol instanceof Http2Protocol http2) {
+                    http2.setMaxConcurrentStreams(properties.getMaxConcurrentStreams());
+                    http2.setMaxConcurrentStreamExecution(properties.getMaxConcurrentStreamExecution());
+                }
+            }
+        });
+    }
+}
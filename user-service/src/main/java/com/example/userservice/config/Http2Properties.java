@@ -0,0 +1,24 @@
+package com.example.userservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Stream limits for HTTP/2 connections, applied when {@code server.http2.enabled} is set.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "http2")
+public class Http2Properties {
+
+    /**
+     * Maximum number of open streams a client may multiplex over one connection.
+     */
+    private int maxConcurrentStreams = 200;
+
+    /**
+     * Maximum number of streams of one connection that are processed at the same time.
+     */
+    private int maxConcurrentStreamExecution = 200;
+}
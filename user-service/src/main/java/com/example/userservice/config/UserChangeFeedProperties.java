@@ -0,0 +1,33 @@
+package com.example.userservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Limits of the long-polling user change feed.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "user-changes")
+public class UserChangeFeedProperties {
+
+    /**
+     * Longest a request for changes is held open while there are none; keep it below
+     * {@code spring.mvc.async.request-timeout}.
+     */
+    private Duration maxWait = Duration.ofSeconds(60);
+
+    /**
+     * Most changed users returned by one request.
+     */
+    private int maxLimit = 1000;
+
+    /**
+     * How often held requests check the database for changes committed by other instances.
+     * Changes committed by this instance answer them right away.
+     */
+    private Duration pollInterval = Duration.ofSeconds(1);
+}
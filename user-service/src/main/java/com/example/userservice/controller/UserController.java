@@ -1,20 +1,41 @@
 package com.example.userservice.controller;
 
+import com.example.userservice.dto.UserBatchRequestDTO;
+import com.example.userservice.dto.UserBatchResponseDTO;
+import com.example.userservice.dto.UserBulkCreateRequestDTO;
+import com.example.userservice.dto.UserBulkCreateResponseDTO;
+import com.example.userservice.dto.UserChangesDTO;
+import com.example.userservice.dto.UserCursorPageDTO;
 import com.example.userservice.dto.UserRequestDTO;
 import com.example.userservice.dto.UserResponseDTO;
+import com.example.userservice.service.UserChangeFeed;
+import com.example.userservice.service.UserExportService;
 import com.example.userservice.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.data.web.SortDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/users")
@@ -22,9 +43,15 @@ import org.springframework.web.bind.annotation.*;
 public class UserController {
 
     private final UserService userService;
+    private final UserChangeFeed userChangeFeed;
+    private final UserExportService userExportService;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService,
+                          UserChangeFeed userChangeFeed,
+                          UserExportService userExportService) {
         this.userService = userService;
+        this.userChangeFeed = userChangeFeed;
+        this.userExportService = userExportService;
     }
 
     // save
@@ -47,22 +74,148 @@ public class UserController {
         return userService.create(request);
     }
 
+    // save many
+    @PostMapping("/batch")
+    @Operation(
+            summary = "Create users in bulk",
+            description = "Register up to 10000 users in one call. Each user is reported at its index in the request "
+                    + "as CREATED, with the created user, or CONFLICT when its email is already in use or repeated "
+                    + "earlier in the request; conflicting users are skipped and the others are created"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Result for every user in the request"),
+            @ApiResponse(responseCode = "400", description = "Validation error")
+    })
+    public UserBulkCreateResponseDTO saveAll(
+            @RequestBody @Valid
+            @Parameter(description = "Users to create")
+            UserBulkCreateRequestDTO request
+    ) {
+        return userService.createAll(request.getUsers());
+    }
+
     // getById
     @GetMapping("/{id}")
     @Operation(
             summary = "Get user by ID",
-            description = "Retrieve a user by its unique identifier"
+            description = "Retrieve a user by its unique identifier. The response carries an ETag "
+                    + "derived from the user's version; send it back in If-None-Match to get a 304 "
+                    + "without a body while the user is unchanged"
     )
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "User found"),
-            @ApiResponse(responseCode = "404", description = "User not found")
+            @ApiResponse(responseCode = "304", description = "User unchanged since the given ETag"),
+            @ApiResponse(responseCode = "404", description = "User not found"),
+            @ApiResponse(responseCode = "504", description = "Time budget in X-Request-Timeout-Ms ran out")
     })
-    public UserResponseDTO getById(
+    public ResponseEntity<UserResponseDTO> getById(
             @PathVariable("id")
             @Parameter(description = "ID of the user", example = "1")
-            Long id
+            Long id,
+            @Parameter(hidden = true)
+            WebRequest request
     ) {
-        return userService.getById(id);
+        // a revalidation is answered from the version alone; any other request loads the user once
+        // and takes the ETag from the version it was read with
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && request.checkNotModified(etag(userService.getVersion(id)))) {
+            return null;
+        }
+        UserService.VersionedUser user = userService.getVersionedById(id);
+        return ResponseEntity.ok()
+                .eTag(etag(user.version()))
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(user.user());
+    }
+
+    // getByIds
+    @PostMapping("/batch-get")
+    @Operation(
+            summary = "Get users by IDs",
+            description = "Retrieve several users in one call; ids that do not exist are reported in missingIds"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Found users and missing ids"),
+            @ApiResponse(responseCode = "400", description = "Validation error"),
+            @ApiResponse(responseCode = "504", description = "Time budget in X-Request-Timeout-Ms ran out")
+    })
+    public UserBatchResponseDTO getByIds(
+            @RequestBody @Valid
+            @Parameter(description = "IDs of the users to retrieve")
+            UserBatchRequestDTO request
+    ) {
+        return userService.getByIds(request.getIds());
+    }
+
+    // change feed
+    @GetMapping("/changes")
+    @Operation(
+            summary = "Get changed users",
+            description = "Long-polls for users changed after the given cursor, oldest change first, each in its "
+                    + "current state. Without changes the request is held until one is committed or the wait "
+                    + "runs out, and then answers with no users and the same cursor. Pass the returned cursor "
+                    + "as since in the next request"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Changed users and the cursor to continue from")
+    })
+    public CompletableFuture<UserChangesDTO> getChanges(
+            @RequestParam(name = "since", defaultValue = "0")
+            @Parameter(description = "Cursor of the previous response, 0 to read all users", example = "0")
+            long since,
+            @RequestParam(name = "limit", defaultValue = "100")
+            @Parameter(description = "Most users to return", example = "100")
+            int limit,
+            @RequestParam(name = "waitSeconds", defaultValue = "30")
+            @Parameter(description = "How long to wait for a change when there is none", example = "30")
+            long waitSeconds
+    ) {
+        return userChangeFeed.changesSince(since, limit, Duration.ofSeconds(waitSeconds));
+    }
+
+    @GetMapping("/changes/head")
+    @Operation(
+            summary = "Get the change feed head",
+            description = "Answers with no users and the cursor of the latest committed change, for a reader "
+                    + "that only needs the changes made from now on"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "The cursor to continue from")
+    })
+    public UserChangesDTO getChangesHead() {
+        return UserChangesDTO.builder()
+                .users(List.of())
+                .cursor(userChangeFeed.head())
+                .build();
+    }
+
+    // export
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    @Operation(
+            summary = "Export users",
+            description = "Stream all users, or those in an id range or updated since a time, in id order as "
+                    + "newline-delimited JSON with one user per line. The response is written while the users "
+                    + "are read, so it starts right away and works for any number of users"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Users, one JSON object per line")
+    })
+    public void export(
+            @RequestParam(name = "fromId", defaultValue = "0")
+            @Parameter(description = "Lowest id to export", example = "0")
+            long fromId,
+            @RequestParam(name = "toId", defaultValue = "" + Long.MAX_VALUE)
+            @Parameter(description = "Highest id to export")
+            long toId,
+            @RequestParam(name = "updatedSince", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            @Parameter(description = "Only users updated at or after this time", example = "2024-01-01T00:00:00")
+            LocalDateTime updatedSince,
+            @Parameter(hidden = true)
+            HttpServletResponse response
+    ) throws IOException {
+        response.setContentType("application/x-ndjson");
+        userExportService.export(fromId, toId, updatedSince, response.getOutputStream());
     }
 
     // getAll pageable
@@ -86,4 +239,59 @@ public class UserController {
     ) {
         return userService.getAll(pageable);
     }
+
+    // getAll without count
+    @GetMapping(params = {"count=false", "!after"})
+    @Operation(
+            summary = "Get all users (sliced)",
+            description = "Retrieve a page of users without the total count, which saves counting all users on "
+                    + "every request. Only the indexed keys id and email can be sorted on"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Slice of users"),
+            @ApiResponse(responseCode = "400", description = "Sort key is not indexed")
+    })
+    public Slice<UserResponseDTO> getSlice(
+            @PageableDefault(
+                    page = 0,
+                    size = 10,
+                    sort = "id",
+                    direction = Sort.Direction.ASC
+            )
+            @Parameter(description = "Pagination and sorting information")
+            Pageable pageable
+    ) {
+        return userService.getSlice(pageable);
+    }
+
+    // getAll keyset
+    @GetMapping(params = "after")
+    @Operation(
+            summary = "Get all users (cursor)",
+            description = "Walk all users with keyset pagination: pass an empty after for the first page and the "
+                    + "returned next cursor for each following page, until next is null. Every page costs the "
+                    + "same however deep it is. Only the indexed keys id and email can be sorted on; the sort "
+                    + "of the first page is kept in the cursor"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Users and the cursor of the next page"),
+            @ApiResponse(responseCode = "400", description = "Sort key is not indexed or the cursor is invalid")
+    })
+    public UserCursorPageDTO getAllAfter(
+            @RequestParam(name = "after")
+            @Parameter(description = "Cursor of the previous page, empty for the first page", example = "")
+            String after,
+            @RequestParam(name = "size", defaultValue = "100")
+            @Parameter(description = "Most users to return, up to 1000", example = "100")
+            int size,
+            @SortDefault(sort = "id", direction = Sort.Direction.ASC)
+            @Parameter(description = "Sort key and direction of the first page, e.g. email,desc")
+            Sort sort
+    ) {
+        return userService.getAllAfter(after, sort, size);
+    }
+
+    private static String etag(long version) {
+        return "\"" + version + "\"";
+    }
 }
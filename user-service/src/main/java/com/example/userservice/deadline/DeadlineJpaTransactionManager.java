@@ -0,0 +1,42 @@
+package com.example.userservice.deadline;
+
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.OptionalLong;
+
+/**
+ * {@link JpaTransactionManager} that fits transactions into the {@link RequestDeadline}.
+ * <p>
+ * A transaction of a request whose deadline has passed is not started, so nothing touches the
+ * database for a caller that gave up. Otherwise the transaction times out at the deadline, to the
+ * millisecond: Spring refuses to create queries once it has passed and hands each query the time
+ * left as its timeout hint. The JDBC statement timeout derived from the hint is whole seconds,
+ * rounded by Hibernate, so a running query is cancelled within half a second of the deadline, and
+ * one started with less than half a second left is not cancelled at all. Statements Hibernate
+ * issues on its own, such as flushes and lookups by id, are not covered by the hint.
+ * <p>
+ * The deadline is not passed on as Hibernate's transaction timeout: Hibernate counts that down in
+ * whole seconds and refuses every statement once less than one full second is left, which would
+ * cut a transaction up to a second short and one with less than a second left entirely.
+ */
+public class DeadlineJpaTransactionManager extends JpaTransactionManager {
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        RequestDeadline.checkNotExpired();
+        super.doBegin(transaction, definition);
+
+        OptionalLong remaining = RequestDeadline.remainingMillis();
+        if (remaining.isEmpty()) {
+            return;
+        }
+        EntityManagerHolder holder =
+                (EntityManagerHolder) TransactionSynchronizationManager.getResource(obtainEntityManagerFactory());
+        if (!holder.hasTimeout() || holder.getTimeToLiveInMillis() > remaining.getAsLong()) {
+            holder.setTimeoutInMillis(remaining.getAsLong());
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.userservice.deadline;
+
+import com.example.userservice.exception.DeadlineExceededException;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deadline of the request handled by the current thread, taken from the time budget its caller
+ * sent in {@value #HEADER}.
+ * <p>
+ * The budget is counted from the moment the request reached this service. Requests without the
+ * header have no deadline.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class RequestDeadline {
+
+    /**
+     * Milliseconds the caller is still willing to wait for the response.
+     */
+    public static final String HEADER = "X-Request-Timeout-Ms";
+
+    private static final ThreadLocal<Long> DEADLINE_NANOS = new ThreadLocal<>();
+
+    public static void set(long remainingMillis) {
+        DEADLINE_NANOS.set(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(remainingMillis));
+    }
+
+    public static void clear() {
+        DEADLINE_NANOS.remove();
+    }
+
+    /**
+     * Milliseconds left until the deadline, zero or less once it has passed, or empty without one.
+     */
+    public static OptionalLong remainingMillis() {
+        Long deadlineNanos = DEADLINE_NANOS.get();
+        if (deadlineNanos == null) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime()));
+    }
+
+    /**
+     * @throws DeadlineExceededException when the caller has stopped waiting for the response
+     */
+    public static void checkNotExpired() {
+        OptionalLong remaining = remainingMillis();
+        if (remaining.isPresent() && remaining.getAsLong() <= 0) {
+            throw new DeadlineExceededException(-remaining.getAsLong());
+        }
+    }
+}
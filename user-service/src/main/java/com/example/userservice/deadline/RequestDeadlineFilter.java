@@ -0,0 +1,47 @@
+package com.example.userservice.deadline;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Starts the {@link RequestDeadline} of each request that carries a time budget. A missing or
+ * malformed header leaves the request without a deadline.
+ */
+@Component
+public class RequestDeadlineFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Long budgetMillis = budgetMillis(request);
+        if (budgetMillis == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        RequestDeadline.set(budgetMillis);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestDeadline.clear();
+        }
+    }
+
+    private static Long budgetMillis(HttpServletRequest request) {
+        String budget = request.getHeader(RequestDeadline.HEADER);
+        if (budget == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(budget.trim());
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+}
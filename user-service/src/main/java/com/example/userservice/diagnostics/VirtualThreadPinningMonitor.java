@@ -0,0 +1,97 @@
+package com.example.userservice.diagnostics;
+
+import com.example.userservice.config.VirtualThreadDiagnosticsProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.stream.Collectors;
+
+/**
+ * Reports virtual threads that pin their carrier thread while blocked.
+ * <p>
+ * A virtual thread that blocks inside a {@code synchronized} block or a native frame cannot
+ * unmount, so it holds one of the few carrier threads for the whole wait. This monitor streams the
+ * JFR {@code jdk.VirtualThreadPinned} event in-process, records each pinned section in the
+ * {@code jvm.threads.virtual.pinned} timer and logs the stack that caused it, so pinning in the
+ * JDBC driver, H2, Hibernate or the HTTP client shows up in metrics and logs. It only runs in
+ * virtual-thread mode ({@code spring.threads.virtual.enabled=true}).
+ */
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@EnableConfigurationProperties(VirtualThreadDiagnosticsProperties.class)
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final VirtualThreadDiagnosticsProperties properties;
+    private final Timer pinned;
+    private volatile RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(VirtualThreadDiagnosticsProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.pinned = Timer.builder("jvm.threads.virtual.pinned")
+                .description("Time virtual threads spent blocked while pinned to their carrier thread")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        RecordingStream recording = new RecordingStream();
+        recording.enable(PINNED_EVENT)
+                .withThreshold(properties.getPinnedThreshold())
+                .withStackTrace();
+        recording.onEvent(PINNED_EVENT, this::onPinned);
+        recording.startAsync();
+        stream = recording;
+        log.info("Reporting virtual threads pinned for at least {}", properties.getPinnedThreshold());
+    }
+
+    @Override
+    public void stop() {
+        RecordingStream recording = stream;
+        stream = null;
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinned.record(event.getDuration());
+        if (log.isWarnEnabled()) {
+            log.warn("Virtual thread {} was pinned to its carrier for {} ms at:{}",
+                    event.getThread() != null ? event.getThread().getJavaName() : "?",
+                    event.getDuration().toMillis(),
+                    stackTrace(event));
+        }
+    }
+
+    private String stackTrace(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return " <no stack trace>";
+        }
+        return event.getStackTrace().getFrames().stream()
+                .limit(properties.getStackDepth())
+                .map(VirtualThreadPinningMonitor::format)
+                .collect(Collectors.joining());
+    }
+
+    private static String format(RecordedFrame frame) {
+        return "\n\tat " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + "(line " + frame.getLineNumber() + ")";
+    }
+}
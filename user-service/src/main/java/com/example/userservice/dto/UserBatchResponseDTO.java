@@ -0,0 +1,16 @@
+package com.example.userservice.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserBatchResponseDTO {
+
+    private List<UserResponseDTO> users;
+    private List<Long> missingIds;
+}
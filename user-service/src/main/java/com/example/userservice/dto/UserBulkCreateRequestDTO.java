@@ -0,0 +1,21 @@
+package com.example.userservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserBulkCreateRequestDTO {
+
+    @NotEmpty(message = "At least one user is required")
+    @Size(max = 10000, message = "At most 10000 users can be created at once")
+    private List<@NotNull(message = "User must not be null") @Valid UserRequestDTO> users;
+}
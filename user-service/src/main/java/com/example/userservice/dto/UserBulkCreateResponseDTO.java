@@ -0,0 +1,36 @@
+package com.example.userservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserBulkCreateResponseDTO {
+
+    private int created;
+    private int conflicts;
+    private List<ItemResult> results;
+
+    public enum Status {
+        CREATED,
+        CONFLICT
+    }
+
+    @Getter
+    @Setter
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class ItemResult {
+        private int index;
+        private Status status;
+        private UserResponseDTO user;
+        private String message;
+    }
+}
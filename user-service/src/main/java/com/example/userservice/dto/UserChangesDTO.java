@@ -0,0 +1,16 @@
+package com.example.userservice.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserChangesDTO {
+
+    private List<UserResponseDTO> users;
+    private long cursor;
+}
@@ -0,0 +1,16 @@
+package com.example.userservice.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserCursorPageDTO {
+
+    private List<UserResponseDTO> users;
+    private String next;
+}
@@ -4,6 +4,7 @@ package com.example.userservice.entity;
 import jakarta.persistence.Column;
 import jakarta.persistence.EntityListeners;
 import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.Version;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -39,5 +40,9 @@ public abstract class Auditable<U> extends BaseModel {
     @LastModifiedBy
     @Column(nullable = false)
     private U updatedBy;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
 
@@ -3,6 +3,7 @@ package com.example.userservice.entity;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
 import jakarta.validation.constraints.Email;
@@ -17,7 +18,10 @@ import lombok.experimental.SuperBuilder;
 @Table(
         name = "users",
         uniqueConstraints = {
-                @UniqueConstraint(columnNames = "email")
+                @UniqueConstraint(name = User.EMAIL_CONSTRAINT, columnNames = "email")
+        },
+        indexes = {
+                @Index(name = "idx_users_change_sequence", columnList = "change_sequence", unique = true)
         }
 )
 @Getter
@@ -27,13 +31,25 @@ import lombok.experimental.SuperBuilder;
 @AllArgsConstructor
 public class User extends Auditable<String> {
 
+    /**
+     * Name of the unique constraint on the email, to tell a taken email from other violations.
+     */
+    public static final String EMAIL_CONSTRAINT = "uk_users_email";
+
     @NotBlank(message = "Name is required")
     @Column(nullable = false)
     private String name;
 
     @Email(message = "Email must be valid")
     @NotBlank(message = "Email is required")
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String email;
+
+    /**
+     * Position of the user's last change in the change feed, assigned by
+     * {@code UserChangeFeed#nextSequence()} whenever the user is saved.
+     */
+    @Column(name = "change_sequence")
+    private Long changeSequence;
 }
 
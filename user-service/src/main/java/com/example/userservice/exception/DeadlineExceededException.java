@@ -0,0 +1,8 @@
+package com.example.userservice.exception;
+
+public class DeadlineExceededException extends RuntimeException {
+
+    public DeadlineExceededException(long overdueMillis) {
+        super("Request deadline exceeded by " + overdueMillis + " ms");
+    }
+}
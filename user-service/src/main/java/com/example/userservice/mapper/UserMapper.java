@@ -6,6 +6,7 @@ import com.example.userservice.entity.User;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 
@@ -18,6 +19,8 @@ public interface UserMapper {
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "createdBy", ignore = true)
     @Mapping(target = "updatedBy", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "changeSequence", ignore = true)
     User toEntity(UserRequestDTO dto);
 
 
@@ -28,6 +31,10 @@ public interface UserMapper {
     default Page<UserResponseDTO> toDtoPage(Page<User> page) {
         return page.map(this::toDto);
     }
+
+    default Slice<UserResponseDTO> toDtoSlice(Slice<User> slice) {
+        return slice.map(this::toDto);
+    }
 }
 
 
@@ -0,0 +1,79 @@
+package com.example.userservice.repository;
+
+import com.example.userservice.entity.PooledSequenceIdGenerator;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.enhanced.DatabaseStructure;
+import org.hibernate.id.enhanced.Optimizer;
+import org.hibernate.id.enhanced.PooledLoOptimizer;
+import org.hibernate.id.enhanced.PooledLoThreadLocalOptimizer;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves each id sequence past the highest id in its table at startup, before any entity is saved.
+ * <p>
+ * Tables created while ids were generated by identity columns already hold ids the new sequences
+ * would hand out again. A sequence whose next block would reach the highest id is restarted one
+ * block above it; sequences that are ahead are left alone, so the check costs one sequence call
+ * per table on later starts. The block a sequence value stands for depends on the optimizer: with
+ * {@code pooled-lo} it starts at the value, with {@code pooled} it ends at it.
+ *
+ * @see PooledSequenceIdGenerator
+ */
+@Slf4j
+@Component
+public class IdSequenceAligner implements SmartInitializingSingleton {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdSequenceAligner(EntityManagerFactory entityManagerFactory, JdbcTemplate jdbcTemplate) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        Dialect dialect = sessionFactory.getJdbcServices().getDialect();
+        sessionFactory.getMappingMetamodel().forEachEntityDescriptor(persister -> {
+            if (persister.getGenerator() instanceof SequenceStyleGenerator generator
+                    && persister instanceof AbstractEntityPersister entityPersister) {
+                align(dialect, generator.getDatabaseStructure(), generator.getOptimizer(),
+                        entityPersister.getTableName(), entityPersister.getIdentifierColumnNames()[0]);
+            }
+        });
+    }
+
+    private void align(Dialect dialect, DatabaseStructure sequence, Optimizer optimizer,
+                       String table, String idColumn) {
+        Long maxId = jdbcTemplate.queryForObject("select max(" + idColumn + ") from " + table, Long.class);
+        if (maxId == null) {
+            return;
+        }
+        String sequenceName = sequence.getPhysicalName().render();
+        Long next = jdbcTemplate.queryForObject(
+                dialect.getSequenceSupport().getSequenceNextValString(sequenceName), Long.class);
+        if (next != null && lowestId(optimizer, next, sequence.getIncrementSize()) > maxId) {
+            return;
+        }
+        // one block above the highest id, so both the pooled and the pooled-lo optimizer start above it
+        long restartWith = maxId + sequence.getIncrementSize() + 1;
+        jdbcTemplate.execute("alter sequence " + sequenceName + " restart with " + restartWith);
+        log.info("Restarted sequence {} at {} above the highest id {} in {}", sequenceName, restartWith, maxId, table);
+    }
+
+    // the first id handed out from the block of the sequence value
+    private static long lowestId(Optimizer optimizer, long value, int incrementSize) {
+        if (optimizer instanceof PooledLoOptimizer || optimizer instanceof PooledLoThreadLocalOptimizer) {
+            return value;
+        }
+        return value - incrementSize + 1;
+    }
+}
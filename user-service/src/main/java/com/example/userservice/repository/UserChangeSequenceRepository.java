@@ -0,0 +1,17 @@
+package com.example.userservice.repository;
+
+import com.example.userservice.entity.UserChangeSequence;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface UserChangeSequenceRepository extends JpaRepository<UserChangeSequence, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from UserChangeSequence s where s.id = :id")
+    Optional<UserChangeSequence> findForUpdate(@Param("id") Long id);
+}
@@ -2,10 +2,81 @@ package com.example.userservice.repository;
 
 
 import com.example.userservice.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    /**
+     * Rows fetched from the database per round trip while a stream is consumed.
+     */
+    String STREAM_FETCH_SIZE = "500";
+
     boolean existsByEmail(String email);
+
+    /**
+     * Every stored email, read row by row; consume the stream within a transaction and close it.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query("select u.email from User u")
+    Stream<String> streamAllEmails();
+
+    @Query("select u.email from User u where u.email in :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    /**
+     * Users after the given keyset position; the id is added to the sort as a tie-breaker.
+     */
+    Window<User> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    /**
+     * A page of users without the count query a {@code Page} needs.
+     */
+    Slice<User> findSliceBy(Pageable pageable);
+
+    /**
+     * Users with ids in the range in id order, read row by row; consume the stream within a
+     * transaction and close it.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<User> streamByIdBetweenOrderById(long fromId, long toId);
+
+    /**
+     * Like {@link #streamByIdBetweenOrderById} for users updated at or after the given time.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<User> streamByIdBetweenAndUpdatedAtGreaterThanEqualOrderById(long fromId, long toId,
+                                                                        LocalDateTime updatedSince);
+
+    @Query("select u.version from User u where u.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    List<User> findByChangeSequenceGreaterThanOrderByChangeSequenceAsc(long changeSequence, Limit limit);
+
+    @Query("select max(u.changeSequence) from User u")
+    Optional<Long> findLatestChangeSequence();
 }
 
@@ -0,0 +1,210 @@
+package com.example.userservice.service;
+
+import com.example.userservice.config.EmailFilterProperties;
+import com.example.userservice.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter of the registered emails, so that checking a new email, which is almost always
+ * free, rarely needs the database.
+ * <p>
+ * {@link #mightContain} answering {@code false} means no user has the email. {@code true} means
+ * one may have it and the database has to be asked; that happens for about
+ * {@code user-email-filter.false-positive-rate} of the free emails. Emails are trimmed and
+ * lower-cased first, which only adds positives. The filter is filled from the users table at
+ * startup and with every email saved by this instance; users saved by other instances sharing
+ * the database are missed until the next start, and the unique constraint on the email rejects
+ * them instead. Until the filter is filled, and when it is disabled, every email is reported as
+ * possibly registered.
+ * <p>
+ * The filter is a bit array of {@code m} bits with {@code k} bit positions per email, both
+ * derived from the expected number of emails and the target false positive rate, and double
+ * hashing of a 64-bit hash of the email to pick the positions.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(EmailFilterProperties.class)
+public class EmailBloomFilter implements SmartInitializingSingleton {
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final EmailFilterProperties properties;
+    private final Counter negatives;
+    private final Counter positives;
+    private final Counter falsePositives;
+
+    private volatile Bits bits;
+
+    public EmailBloomFilter(UserRepository userRepository,
+                            PlatformTransactionManager transactionManager,
+                            EmailFilterProperties properties,
+                            MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.properties = properties;
+        this.negatives = Counter.builder("user.email.filter.checks")
+                .description("Email checks answered by the filter alone or passed on to the database")
+                .tag("result", "negative")
+                .register(meterRegistry);
+        this.positives = Counter.builder("user.email.filter.checks")
+                .description("Email checks answered by the filter alone or passed on to the database")
+                .tag("result", "positive")
+                .register(meterRegistry);
+        this.falsePositives = Counter.builder("user.email.filter.false.positives")
+                .description("Possibly registered emails the database found free")
+                .register(meterRegistry);
+        Gauge.builder("user.email.filter.size", this, filter -> filter.bits == null ? 0 : filter.bits.insertions.get())
+                .description("Emails added to the filter")
+                .register(meterRegistry);
+        Gauge.builder("user.email.filter.bits", this, filter -> filter.bits == null ? 0 : filter.bits.size)
+                .description("Size of the filter's bit array")
+                .baseUnit("bits")
+                .register(meterRegistry);
+        Gauge.builder("user.email.filter.fpp", this, EmailBloomFilter::expectedFalsePositiveRate)
+                .description("Expected false positive rate given the bits set")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long start = System.nanoTime();
+        long stored = userRepository.count();
+        Bits filled = new Bits(Math.max(properties.getExpectedInsertions(), 2 * stored),
+                properties.getFalsePositiveRate());
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<String> emails = userRepository.streamAllEmails()) {
+                emails.forEach(email -> filled.put(normalize(email)));
+            }
+        });
+        bits = filled;
+        log.info("Email filter loaded {} emails into {} bits ({} hashes) in {} ms", filled.insertions.get(),
+                filled.size, filled.hashes, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Whether a user may have the email; {@code false} is certain.
+     */
+    public boolean mightContain(String email) {
+        Bits current = bits;
+        if (current == null) {
+            return true;
+        }
+        boolean positive = current.mightContain(normalize(email));
+        (positive ? positives : negatives).increment();
+        return positive;
+    }
+
+    /**
+     * Adds an email about to be saved. Call it before the insert, so a concurrent check never
+     * misses an email that is already in the table; an insert that fails later only leaves a
+     * false positive behind.
+     */
+    public void put(String email) {
+        Bits current = bits;
+        if (current == null) {
+            return;
+        }
+        current.put(normalize(email));
+        if (current.insertions.get() == current.capacity + 1) {
+            log.warn("Email filter holds more than the {} emails it was sized for; its false positive rate "
+                    + "rises until the next start", current.capacity);
+        }
+    }
+
+    /**
+     * Records that the database found free an email the filter reported as possibly registered.
+     */
+    public void falsePositive() {
+        falsePositives.increment();
+    }
+
+    double expectedFalsePositiveRate() {
+        Bits current = bits;
+        return current == null ? 1.0 : Math.pow((double) current.bitsSet.get() / current.size, current.hashes);
+    }
+
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Bits {
+
+        private final long capacity;
+        private final long size;
+        private final int hashes;
+        private final AtomicLongArray words;
+        private final AtomicLong bitsSet = new AtomicLong();
+        private final AtomicLong insertions = new AtomicLong();
+
+        Bits(long capacity, double falsePositiveRate) {
+            double ln2 = Math.log(2);
+            this.capacity = capacity;
+            this.size = Math.max(64, (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (ln2 * ln2)));
+            this.hashes = Math.max(1, (int) Math.round((double) size / capacity * ln2));
+            this.words = new AtomicLongArray(Math.toIntExact((size + 63) / 64));
+        }
+
+        boolean mightContain(String email) {
+            long hash = hash(email);
+            for (int i = 0; i < hashes; i++) {
+                long bit = index(hash, i);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void put(String email) {
+            long hash = hash(email);
+            for (int i = 0; i < hashes; i++) {
+                long bit = index(hash, i);
+                long mask = 1L << bit;
+                long previous = words.getAndAccumulate((int) (bit >>> 6), mask, (word, m) -> word | m);
+                if ((previous & mask) == 0) {
+                    bitsSet.incrementAndGet();
+                }
+            }
+            insertions.incrementAndGet();
+        }
+
+        private long index(long hash, int i) {
+            // double hashing: the i-th position is h1 + i * h2
+            long combined = (int) hash + (long) i * (int) (hash >>> 32);
+            return Math.floorMod(combined, size);
+        }
+
+        private static long hash(String email) {
+            // FNV-1a over the UTF-8 bytes, then the MurmurHash3 finalizer to spread the bits
+            long hash = 0xcbf29ce484222325L;
+            for (byte b : email.getBytes(StandardCharsets.UTF_8)) {
+                hash ^= b & 0xff;
+                hash *= 0x100000001b3L;
+            }
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            hash *= 0xc4ceb9fe1a85ec53L;
+            hash ^= hash >>> 33;
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.userservice.service;
+
+import com.example.userservice.config.UserChangeFeedProperties;
+import com.example.userservice.deadline.RequestDeadline;
+import com.example.userservice.dto.UserChangesDTO;
+import com.example.userservice.entity.User;
+import com.example.userservice.entity.UserChangeSequence;
+import com.example.userservice.mapper.UserMapper;
+import com.example.userservice.repository.UserChangeSequenceRepository;
+import com.example.userservice.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Feed of changed users, ordered by the change sequence assigned when a user is saved.
+ * <p>
+ * Readers pass the cursor of their previous response and get the users changed after it, each in
+ * its current state, so a user changed twice shows up once. Sequences are taken from the locked
+ * {@link UserChangeSequence} row, which keeps them in commit order: a reader never sees a change
+ * while one with a lower sequence is still uncommitted, and can simply resume after the last
+ * sequence it saw.
+ * <p>
+ * A request that finds no changes is held until one is committed or its wait runs out (long
+ * polling). Changes committed by this instance answer held requests right away; changes committed
+ * by other instances sharing the database are noticed by polling every
+ * {@code user-changes.poll-interval} while requests are held.
+ */
+@Slf4j
+@Service
+@EnableConfigurationProperties(UserChangeFeedProperties.class)
+public class UserChangeFeed implements SmartInitializingSingleton, DisposableBean {
+
+    private final UserRepository userRepository;
+    private final UserChangeSequenceRepository sequenceRepository;
+    private final UserMapper userMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final UserChangeFeedProperties properties;
+    private final Set<Waiter> waiters = ConcurrentHashMap.newKeySet();
+    private final AtomicLong latestCommitted = new AtomicLong();
+    private final ScheduledExecutorService scheduler;
+
+    public UserChangeFeed(UserRepository userRepository,
+                          UserChangeSequenceRepository sequenceRepository,
+                          UserMapper userMapper,
+                          PlatformTransactionManager transactionManager,
+                          UserChangeFeedProperties properties) {
+        this.userRepository = userRepository;
+        this.sequenceRepository = sequenceRepository;
+        this.userMapper = userMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-change-feed");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!sequenceRepository.existsById(UserChangeSequence.ID)) {
+                    long latest = userRepository.findLatestChangeSequence().orElse(0L);
+                    sequenceRepository.saveAndFlush(new UserChangeSequence(UserChangeSequence.ID, latest));
+                }
+            });
+        } catch (DataIntegrityViolationException ex) {
+            // another instance sharing the database created the row first
+        }
+        long interval = properties.getPollInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::pollForChanges, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Assigns the next change sequence for a user saved in the current transaction.
+     * <p>
+     * The sequence row stays locked until the transaction ends, which serializes writers; call
+     * this right before saving the user to keep that window short.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long nextSequence() {
+        return nextSequences(1);
+    }
+
+    /**
+     * Assigns {@code count} consecutive change sequences for users saved in the current transaction
+     * and returns the first; see {@link #nextSequence()}.
+     * <p>
+     * Holding the row lock until commit is deliberate: it is what keeps sequences in commit order.
+     * With a database sequence a transaction could take a lower value and commit after a reader
+     * had already moved past it, and that change would never be read. A bulk insert therefore
+     * blocks other writers for its whole duration, so callers take the sequences only after their
+     * own checks, right before the inserts.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long nextSequences(int count) {
+        UserChangeSequence sequence = sequenceRepository.findForUpdate(UserChangeSequence.ID)
+                .orElseThrow(() -> new IllegalStateException("User change sequence is not initialized"));
+        long first = sequence.getLastAssigned() + 1;
+        long last = sequence.getLastAssigned() + count;
+        sequence.setLastAssigned(last);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                scheduler.execute(() -> committed(last));
+            }
+        });
+        return first;
+    }
+
+    /**
+     * The cursor of the latest committed change, for readers that only need changes from now on.
+     */
+    @Transactional(readOnly = true)
+    public long head() {
+        return userRepository.findLatestChangeSequence().orElse(0L);
+    }
+
+    /**
+     * Users changed after {@code since}, oldest change first. When there are none, the returned
+     * future completes once a change is committed or after {@code wait}, whichever comes first, with
+     * an empty page in the latter case. The wait is shortened to the request's deadline and to
+     * {@code user-changes.max-wait}.
+     */
+    public CompletableFuture<UserChangesDTO> changesSince(long since, int limit, Duration wait) {
+        int pageSize = Math.max(1, Math.min(limit, properties.getMaxLimit()));
+        long waitMillis = Math.min(wait.toMillis(), properties.getMaxWait().toMillis());
+        waitMillis = Math.min(waitMillis, RequestDeadline.remainingMillis().orElse(Long.MAX_VALUE));
+
+        UserChangesDTO changes = read(since, pageSize);
+        if (!changes.getUsers().isEmpty() || waitMillis <= 0) {
+            return CompletableFuture.completedFuture(changes);
+        }
+
+        Waiter waiter = new Waiter(since, pageSize, new CompletableFuture<>());
+        waiters.add(waiter);
+        waiter.result()
+                .completeOnTimeout(changes, waitMillis, TimeUnit.MILLISECONDS)
+                .whenComplete((result, ex) -> waiters.remove(waiter));
+        // a change committed between the read above and registering the waiter would not wake it
+        long latest = latestCommitted.get();
+        if (latest > since) {
+            scheduler.execute(() -> committed(latest));
+        }
+        return waiter.result();
+    }
+
+    private void pollForChanges() {
+        if (waiters.isEmpty()) {
+            return;
+        }
+        try {
+            userRepository.findLatestChangeSequence().ifPresent(this::committed);
+        } catch (RuntimeException ex) {
+            log.warn("Could not check for user changes: {}", ex.getMessage());
+        }
+    }
+
+    private void committed(long sequence) {
+        latestCommitted.accumulateAndGet(sequence, Math::max);
+        for (Waiter waiter : waiters) {
+            if (waiter.since() < sequence && waiters.remove(waiter)) {
+                try {
+                    UserChangesDTO changes = read(waiter.since(), waiter.limit());
+                    if (changes.getUsers().isEmpty() && !waiter.result().isDone()) {
+                        // the changed users were deleted since: keep waiting for the next change
+                        waiters.add(waiter);
+                    } else {
+                        waiter.result().complete(changes);
+                    }
+                } catch (RuntimeException ex) {
+                    waiter.result().completeExceptionally(ex);
+                }
+            }
+        }
+    }
+
+    private UserChangesDTO read(long since, int limit) {
+        List<User> users = userRepository.findByChangeSequenceGreaterThanOrderByChangeSequenceAsc(
+                since, Limit.of(limit));
+        long cursor = users.isEmpty() ? since : users.get(users.size() - 1).getChangeSequence();
+        return UserChangesDTO.builder()
+                .users(userMapper.toDtoList(users))
+                .cursor(cursor)
+                .build();
+    }
+
+    private record Waiter(long since, int limit, CompletableFuture<UserChangesDTO> result) {
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.userservice.service;
+
+import com.example.userservice.exception.InvalidPageRequestException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Position in a keyset walk over the users, handed to clients as an opaque string.
+ * <p>
+ * It carries the sort key and direction along with the sort key values of the last user
+ * returned (and its id), so the next page continues with a seek on the index instead of skipping
+ * an offset, and the walk keeps its order whatever the client sends with later pages.
+ */
+record UserCursor(String property, Sort.Direction direction, Map<String, Object> keys) {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    static UserCursor start(Sort.Order order) {
+        return new UserCursor(order.getProperty(), order.getDirection(), Map.of());
+    }
+
+    /**
+     * Reads a cursor handed out by {@link #encode()}. Anything else, including a cursor whose keys
+     * are not exactly its sort key and the id with the types of those columns, is rejected with an
+     * {@link InvalidPageRequestException}.
+     */
+    static UserCursor decode(String encoded) {
+        UserCursor cursor;
+        try {
+            cursor = MAPPER.readValue(Base64.getUrlDecoder().decode(encoded), UserCursor.class);
+        } catch (IllegalArgumentException | IOException ex) {
+            throw new InvalidPageRequestException("Invalid cursor");
+        }
+        if (cursor.property() == null || cursor.direction() == null || cursor.keys() == null
+                || !UserService.INDEXED_SORT_KEYS.contains(cursor.property())
+                || !cursor.keys().keySet().equals(new HashSet<>(List.of(cursor.property(), "id")))) {
+            throw new InvalidPageRequestException("Invalid cursor");
+        }
+        Map<String, Object> typed = new LinkedHashMap<>();
+        cursor.keys().forEach((key, value) -> typed.put(key, typed(key, value)));
+        return new UserCursor(cursor.property(), cursor.direction(), typed);
+    }
+
+    // JSON numbers come back as Integer or Long; ids are always Long
+    private static Object typed(String key, Object value) {
+        if ("id".equals(key) && (value instanceof Integer || value instanceof Long)) {
+            return ((Number) value).longValue();
+        }
+        if ("email".equals(key) && value instanceof String) {
+            return value;
+        }
+        throw new InvalidPageRequestException("Invalid cursor");
+    }
+
+    Sort sort() {
+        return Sort.by(direction, property);
+    }
+
+    ScrollPosition position() {
+        return keys.isEmpty() ? ScrollPosition.keyset() : ScrollPosition.forward(keys);
+    }
+
+    UserCursor after(ScrollPosition last) {
+        return new UserCursor(property, direction, ((KeysetScrollPosition) last).getKeys());
+    }
+
+    String encode() {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(
+                    MAPPER.writeValueAsString(this).getBytes(StandardCharsets.UTF_8));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not encode cursor", ex);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.userservice.service;
+
+import com.example.userservice.dto.UserResponseDTO;
+import com.example.userservice.entity.User;
+import com.example.userservice.mapper.UserMapper;
+import com.example.userservice.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes users as newline-delimited JSON, one {@link UserResponseDTO} per line.
+ * <p>
+ * Users are read from a database cursor with {@link UserRepository#STREAM_FETCH_SIZE} rows per
+ * round trip and written as they arrive; each entity is detached once written, so neither the
+ * persistence context nor the output buffer grows with the number of users exported.
+ */
+@Service
+public class UserExportService {
+
+    private final UserRepository userRepository;
+    private final UserMapper userMapper;
+    private final EntityManager entityManager;
+    private final ObjectWriter writer;
+
+    public UserExportService(UserRepository userRepository,
+                             UserMapper userMapper,
+                             EntityManager entityManager,
+                             ObjectMapper objectMapper) {
+        this.userRepository = userRepository;
+        this.userMapper = userMapper;
+        this.entityManager = entityManager;
+        // flushing after every user would send one chunk per line
+        this.writer = objectMapper.writerFor(UserResponseDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Writes the users with ids between {@code fromId} and {@code toId} (inclusive), in id order,
+     * optionally only those updated at or after {@code updatedSince}.
+     *
+     * @return the number of users written
+     */
+    @Transactional(readOnly = true)
+    public long export(long fromId, long toId, LocalDateTime updatedSince, OutputStream out) throws IOException {
+        long written = 0;
+        try (Stream<User> users = updatedSince == null
+                ? userRepository.streamByIdBetweenOrderById(fromId, toId)
+                : userRepository.streamByIdBetweenAndUpdatedAtGreaterThanEqualOrderById(fromId, toId, updatedSince);
+             JsonGenerator generator = writer.createGenerator(out)) {
+            generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            generator.setRootValueSeparator(null);
+            for (Iterator<User> it = users.iterator(); it.hasNext(); ) {
+                User user = it.next();
+                writer.writeValue(generator, userMapper.toDto(user));
+                generator.writeRaw('\n');
+                entityManager.detach(user);
+                written++;
+            }
+        }
+        return written;
+    }
+}
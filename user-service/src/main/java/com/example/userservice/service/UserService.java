@@ -1,38 +1,197 @@
 package com.example.userservice.service;
 
 
+import com.example.userservice.dto.UserBatchResponseDTO;
+import com.example.userservice.dto.UserBulkCreateResponseDTO;
+import com.example.userservice.dto.UserCursorPageDTO;
 import com.example.userservice.dto.UserRequestDTO;
 import com.example.userservice.dto.UserResponseDTO;
 import com.example.userservice.entity.User;
 import com.example.userservice.exception.EmailAlreadyExistsException;
+import com.example.userservice.exception.InvalidPageRequestException;
 import com.example.userservice.exception.UserNotFoundException;
 import com.example.userservice.mapper.UserMapper;
 import com.example.userservice.repository.UserRepository;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class UserService {
 
+    /**
+     * Sort keys backed by a unique index, the only ones a keyset walk or a slice may use.
+     */
+    static final Set<String> INDEXED_SORT_KEYS = Set.of("id", "email");
+
+    static final int MAX_PAGE_SIZE = 1000;
+
+    /**
+     * Users checked and inserted per step of a bulk create; the persistence context is flushed and
+     * cleared after each step.
+     */
+    static final int BULK_CHUNK_SIZE = 500;
+
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final UserChangeFeed userChangeFeed;
+    private final EmailBloomFilter emailFilter;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
 
+    /**
+     * Creates a user. The email is only looked up in the database when {@link EmailBloomFilter}
+     * reports it as possibly registered; the unique constraint on the email catches the rest.
+     */
     @Transactional
     public UserResponseDTO create(UserRequestDTO userRequestDTO) {
-        if (userRepository.existsByEmail(userRequestDTO.getEmail())) {
-            throw new EmailAlreadyExistsException(userRequestDTO.getEmail());
+        String email = userRequestDTO.getEmail();
+        if (emailFilter.mightContain(email)) {
+            if (userRepository.existsByEmail(email)) {
+                throw new EmailAlreadyExistsException(email);
+            }
+            emailFilter.falsePositive();
         }
 
         User user = userMapper.toEntity(userRequestDTO);
-        user = userRepository.save(user);
+        user.setChangeSequence(userChangeFeed.nextSequence());
+        emailFilter.put(email);
+        try {
+            // flushed here so a taken email fails as a conflict, not at commit; other violations
+            // are not about the email and go up unchanged
+            user = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException ex) {
+            if (isEmailTaken(ex)) {
+                throw new EmailAlreadyExistsException(email);
+            }
+            throw ex;
+        }
 
         return userMapper.toDto(user);
     }
 
+    /**
+     * Creates many users in one transaction. The emails {@link EmailBloomFilter} reports as
+     * possibly registered are checked with one query per chunk instead of one per user, and the
+     * users are inserted in JDBC batches of {@code hibernate.jdbc.batch_size}. A user whose email
+     * is taken, or repeated earlier in the request, is reported as a conflict and skipped; the
+     * others are created. The change sequences are taken after the email checks, so the lock on
+     * the sequence row, which holds off other writers, only covers the inserts.
+     * <p>
+     * The unique constraint on the email stays the final check. When one of the emails is
+     * registered concurrently, after it was checked, the transaction is rolled back and the request
+     * runs once more with every email checked, which reports that email as a conflict. Only the
+     * transaction started here can be retried, so this is not meant to run inside another one.
+     */
+    public UserBulkCreateResponseDTO createAll(List<UserRequestDTO> requests) {
+        try {
+            return transactionTemplate.execute(status -> insertAll(requests, false));
+        } catch (DataIntegrityViolationException ex) {
+            if (!isEmailTaken(ex)) {
+                throw ex;
+            }
+        }
+        try {
+            return transactionTemplate.execute(status -> insertAll(requests, true));
+        } catch (DataIntegrityViolationException ex) {
+            if (!isEmailTaken(ex)) {
+                throw ex;
+            }
+            // raced twice: give up on the request as a whole, naming one of the taken emails
+            List<String> emails = requests.stream().map(UserRequestDTO::getEmail).toList();
+            String taken = transactionTemplate.execute(status ->
+                    userRepository.findExistingEmails(emails).stream().findFirst().orElse(null));
+            if (taken == null) {
+                throw ex;
+            }
+            throw new EmailAlreadyExistsException(taken);
+        }
+    }
+
+    private UserBulkCreateResponseDTO insertAll(List<UserRequestDTO> requests, boolean checkAllEmails) {
+        Set<String> takenEmails = new HashSet<>();
+        for (List<UserRequestDTO> chunk : chunks(requests)) {
+            List<String> possiblyTaken = chunk.stream()
+                    .map(UserRequestDTO::getEmail)
+                    .filter(email -> checkAllEmails || emailFilter.mightContain(email))
+                    .toList();
+            if (!possiblyTaken.isEmpty()) {
+                Set<String> taken = userRepository.findExistingEmails(possiblyTaken);
+                if (!checkAllEmails) {
+                    possiblyTaken.stream()
+                            .filter(email -> !taken.contains(email))
+                            .forEach(email -> emailFilter.falsePositive());
+                }
+                takenEmails.addAll(taken);
+            }
+        }
+
+        List<UserBulkCreateResponseDTO.ItemResult> results = new ArrayList<>(requests.size());
+        List<User> users = new ArrayList<>();
+        for (int index = 0; index < requests.size(); index++) {
+            UserRequestDTO request = requests.get(index);
+            if (!takenEmails.add(request.getEmail())) {
+                results.add(UserBulkCreateResponseDTO.ItemResult.builder()
+                        .index(index)
+                        .status(UserBulkCreateResponseDTO.Status.CONFLICT)
+                        .message(new EmailAlreadyExistsException(request.getEmail()).getMessage())
+                        .build());
+                continue;
+            }
+            emailFilter.put(request.getEmail());
+            users.add(userMapper.toEntity(request));
+            results.add(UserBulkCreateResponseDTO.ItemResult.builder()
+                    .index(index)
+                    .status(UserBulkCreateResponseDTO.Status.CREATED)
+                    .build());
+        }
+
+        if (!users.isEmpty()) {
+            long sequence = userChangeFeed.nextSequences(users.size());
+            for (User user : users) {
+                user.setChangeSequence(sequence++);
+            }
+            for (List<User> chunk : chunks(users)) {
+                userRepository.saveAll(chunk);
+                // through the repository, so a violated constraint surfaces as a DataAccessException
+                userRepository.flush();
+                entityManager.clear();
+            }
+        }
+
+        int created = 0;
+        for (UserBulkCreateResponseDTO.ItemResult result : results) {
+            if (result.getStatus() == UserBulkCreateResponseDTO.Status.CREATED) {
+                result.setUser(userMapper.toDto(users.get(created++)));
+            }
+        }
+        return UserBulkCreateResponseDTO.builder()
+                .created(created)
+                .conflicts(results.size() - created)
+                .results(results)
+                .build();
+    }
+
     @Transactional(readOnly = true)
     public UserResponseDTO getById(Long id) {
         User user = userRepository.findById(id)
@@ -41,9 +200,102 @@ public class UserService {
         return userMapper.toDto(user);
     }
 
+    /**
+     * Returns a user together with the entity version it was read at, so a response and its ETag
+     * come from the same read.
+     */
+    @Transactional(readOnly = true)
+    public VersionedUser getVersionedById(Long id) {
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new UserNotFoundException(id));
+
+        return new VersionedUser(userMapper.toDto(user), user.getVersion());
+    }
+
+    /**
+     * Returns the entity version of a user without loading the user, for conditional requests.
+     */
+    @Transactional(readOnly = true)
+    public long getVersion(Long id) {
+        return userRepository.findVersionById(id)
+                .orElseThrow(() -> new UserNotFoundException(id));
+    }
+
+    @Transactional(readOnly = true)
+    public UserBatchResponseDTO getByIds(Collection<Long> ids) {
+        Set<Long> requestedIds = new LinkedHashSet<>(ids);
+        List<User> users = userRepository.findAllById(requestedIds);
+
+        users.forEach(user -> requestedIds.remove(user.getId()));
+
+        return UserBatchResponseDTO.builder()
+                .users(userMapper.toDtoList(users))
+                .missingIds(List.copyOf(requestedIds))
+                .build();
+    }
+
     @Transactional(readOnly = true)
     public Page<UserResponseDTO> getAll(Pageable pageable) {
         return userMapper.toDtoPage(userRepository.findAll(pageable));
     }
-}
 
+    /**
+     * A page of users without counting all users; like {@link #getAll} it still skips an offset,
+     * so deep pages stay slow. Only indexed sort keys are accepted.
+     */
+    @Transactional(readOnly = true)
+    public Slice<UserResponseDTO> getSlice(Pageable pageable) {
+        Pageable indexed = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                Sort.by(indexedOrder(pageable.getSort())));
+        return userMapper.toDtoSlice(userRepository.findSliceBy(indexed));
+    }
+
+    /**
+     * The users following the cursor of the previous page, found by seeking on the sort key's
+     * index, so every page costs the same however deep it is. A blank cursor starts a walk in the
+     * given order; later pages keep the order of their cursor.
+     */
+    @Transactional(readOnly = true)
+    public UserCursorPageDTO getAllAfter(String after, Sort sort, int size) {
+        UserCursor cursor = after.isBlank() ? UserCursor.start(indexedOrder(sort)) : UserCursor.decode(after);
+        Window<User> window = userRepository.findAllBy(cursor.position(), cursor.sort(),
+                Limit.of(Math.max(1, Math.min(size, MAX_PAGE_SIZE))));
+        String next = window.hasNext() ? cursor.after(window.positionAt(window.size() - 1)).encode() : null;
+
+        return UserCursorPageDTO.builder()
+                .users(userMapper.toDtoList(window.getContent()))
+                .next(next)
+                .build();
+    }
+
+    // H2 names the index behind the constraint, e.g. "PUBLIC.UK_USERS_EMAIL_INDEX_4 ON ...", so the
+    // constraint is looked for within the reported name
+    private static boolean isEmailTaken(DataIntegrityViolationException ex) {
+        return ex.getCause() instanceof ConstraintViolationException violation
+                && violation.getConstraintName() != null
+                && violation.getConstraintName().toLowerCase(Locale.ROOT).contains(User.EMAIL_CONSTRAINT);
+    }
+
+    private static <T> List<List<T>> chunks(List<T> items) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < items.size(); from += BULK_CHUNK_SIZE) {
+            chunks.add(items.subList(from, Math.min(from + BULK_CHUNK_SIZE, items.size())));
+        }
+        return chunks;
+    }
+
+    private static Sort.Order indexedOrder(Sort sort) {
+        if (sort.isUnsorted()) {
+            return Sort.Order.asc("id");
+        }
+        List<Sort.Order> orders = sort.toList();
+        if (orders.size() > 1 || !INDEXED_SORT_KEYS.contains(orders.get(0).getProperty())) {
+            throw new InvalidPageRequestException(
+                    "Sort by one of " + INDEXED_SORT_KEYS.stream().sorted().toList() + ", got '" + sort + "'");
+        }
+        return orders.get(0);
+    }
+
+    public record VersionedUser(UserResponseDTO user, long version) {
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.userservice.benchmark;
+
+import com.example.userservice.entity.PooledSequenceIdGenerator;
+import com.example.userservice.entity.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.h2.tools.Server;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares inserting users with identity column ids, the mapping before ids came from a
+ * sequence, against the pooled sequence ids of {@code BaseModel}.
+ * <p>
+ * Each run builds its own Hibernate session factory on a fresh in-memory H2 database, reached
+ * over a local H2 TCP server so every statement pays a socket round trip, with the batching
+ * settings of {@code application.yml}; the identity run overrides the id mapping with an orm.xml. Users are persisted and flushed in chunks like {@code UserService.createAll}, and the
+ * throughput and the number of JDBC statements prepared are printed.
+ * Run with {@code mvn test -Pbenchmark -pl user-service}.
+ */
+@Tag("benchmark")
+@DisplayName("User insert benchmark: identity vs pooled sequence ids")
+class UserInsertBenchmarkTest {
+
+    private static final int WARMUP_USERS = 20_000;
+    private static final int MEASURED_USERS = 100_000;
+    private static final int CHUNK_SIZE = 500;
+    private static final int BATCH_SIZE = 100;
+
+    private static final String IDENTITY_MAPPING = """
+            <entity-mappings xmlns="https://jakarta.ee/xml/ns/persistence/orm" version="3.1">
+                <mapped-superclass class="com.example.userservice.entity.BaseModel" metadata-complete="false">
+                    <attributes>
+                        <id name="id">
+                            <generated-value strategy="IDENTITY"/>
+                        </id>
+                    </attributes>
+                </mapped-superclass>
+            </entity-mappings>
+            """;
+
+    private static Server server;
+
+    @BeforeAll
+    static void startServer() throws SQLException {
+        server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop();
+    }
+
+    @Test
+    @DisplayName("Pooled sequence ids batch inserts and outrun identity ids")
+    void compareIdGeneration() {
+        Result identity = run("identity", true);
+        Result sequence = run("pooled-sequence", false);
+
+        System.out.printf("%n%-16s %12s %14s%n", "ids", "users/s", "statements");
+        for (Result result : new Result[]{identity, sequence}) {
+            System.out.printf("%-16s %12.0f %14d%n", result.name(), result.usersPerSecond(), result.statements());
+        }
+
+        // identity ids need one INSERT per user to read the id back; sequence ids are batched
+        assertThat(identity.statements()).isGreaterThanOrEqualTo(MEASURED_USERS);
+        assertThat(sequence.statements()).isLessThan(MEASURED_USERS / 10);
+    }
+
+    private static Result run(String name, boolean identityIds) {
+        String url = "jdbc:h2:tcp://localhost:" + server.getPort() + "/mem:" + name + ";DB_CLOSE_DELAY=-1";
+        StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.JAKARTA_JDBC_URL, url)
+                .applySetting(AvailableSettings.JAKARTA_JDBC_USER, "sa")
+                .applySetting(AvailableSettings.JAKARTA_JDBC_PASSWORD, "")
+                .applySetting(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .applySetting(AvailableSettings.STATEMENT_BATCH_SIZE, BATCH_SIZE)
+                .applySetting(AvailableSettings.ORDER_INSERTS, true)
+                .applySetting(AvailableSettings.PREFERRED_POOLED_OPTIMIZER, "pooled-lo")
+                .applySetting(PooledSequenceIdGenerator.ALLOCATION_SIZE, PooledSequenceIdGenerator.DEFAULT_ALLOCATION_SIZE)
+                .applySetting(AvailableSettings.GENERATE_STATISTICS, true)
+                .build();
+        MetadataSources sources = new MetadataSources(registry).addAnnotatedClass(User.class);
+        if (identityIds) {
+            sources.addInputStream(new ByteArrayInputStream(IDENTITY_MAPPING.getBytes(StandardCharsets.UTF_8)));
+        }
+
+        try (SessionFactory sessionFactory = sources.buildMetadata().buildSessionFactory()) {
+            insert(sessionFactory, "warmup", WARMUP_USERS);
+            Statistics statistics = sessionFactory.getStatistics();
+            statistics.clear();
+
+            long start = System.nanoTime();
+            insert(sessionFactory, "measured", MEASURED_USERS);
+            long elapsedNanos = System.nanoTime() - start;
+
+            Long count = sessionFactory.fromSession(session ->
+                    session.createQuery("select count(u) from User u where u.name = 'measured'", Long.class)
+                            .getSingleResult());
+            assertThat(count).isEqualTo(MEASURED_USERS);
+            return new Result(name,
+                    MEASURED_USERS / (elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1)),
+                    statistics.getPrepareStatementCount());
+        } finally {
+            StandardServiceRegistryBuilder.destroy(registry);
+        }
+    }
+
+    private static void insert(SessionFactory sessionFactory, String prefix, int users) {
+        LocalDateTime now = LocalDateTime.now();
+        sessionFactory.inTransaction(session -> {
+            for (int i = 0; i < users; i++) {
+                session.persist(User.builder()
+                        .name(prefix)
+                        .email(prefix + i + "@example.com")
+                        .createdAt(now)
+                        .updatedAt(now)
+                        .createdBy("benchmark")
+                        .updatedBy("benchmark")
+                        .build());
+                if ((i + 1) % CHUNK_SIZE == 0) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+        });
+    }
+
+    private record Result(String name, double usersPerSecond, long statements) {
+    }
+}
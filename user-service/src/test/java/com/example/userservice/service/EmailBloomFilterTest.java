@@ -0,0 +1,77 @@
+package com.example.userservice.service;
+
+import com.example.userservice.config.EmailFilterProperties;
+import com.example.userservice.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("EmailBloomFilter Tests")
+class EmailBloomFilterTest {
+
+    private UserRepository userRepository;
+    private EmailFilterProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        properties = new EmailFilterProperties();
+        properties.setExpectedInsertions(10_000);
+        properties.setFalsePositiveRate(0.01);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("Should report every stored and added email and few others, close to the target rate")
+    void shouldNeverMissEmailsAndKeepFalsePositivesNearTarget() {
+        List<String> stored = emails("stored", 5_000);
+        when(userRepository.count()).thenReturn((long) stored.size());
+        when(userRepository.streamAllEmails()).thenReturn(stored.stream());
+        EmailBloomFilter filter = filter();
+        filter.afterSingletonsInstantiated();
+
+        List<String> added = emails("added", 5_000);
+        added.forEach(filter::put);
+
+        assertThat(Stream.concat(stored.stream(), added.stream())).allMatch(filter::mightContain);
+        long falsePositives = emails("free", 10_000).stream().filter(filter::mightContain).count();
+        assertThat(falsePositives / 10_000.0).isLessThan(0.02);
+        assertThat(meterRegistry.get("user.email.filter.size").gauge().value()).isEqualTo(10_000);
+        assertThat(meterRegistry.get("user.email.filter.fpp").gauge().value()).isBetween(0.005, 0.02);
+    }
+
+    @Test
+    @DisplayName("Should match emails regardless of case and surrounding spaces, and pass everything until loaded")
+    void shouldNormalizeEmailsAndPassEverythingUntilLoaded() {
+        when(userRepository.count()).thenReturn(1L);
+        when(userRepository.streamAllEmails()).thenReturn(Stream.of("Jane.Doe@Example.com"));
+        EmailBloomFilter filter = filter();
+
+        assertThat(filter.mightContain("free@example.com")).isTrue();
+
+        filter.afterSingletonsInstantiated();
+
+        assertThat(filter.mightContain(" jane.doe@example.COM ")).isTrue();
+        assertThat(meterRegistry.get("user.email.filter.checks").tag("result", "positive").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    private EmailBloomFilter filter() {
+        return new EmailBloomFilter(userRepository, mock(PlatformTransactionManager.class), properties, meterRegistry);
+    }
+
+    private static List<String> emails(String prefix, int count) {
+        return IntStream.range(0, count).mapToObj(i -> prefix + i + "@example.com").toList();
+    }
+}
@@ -1,22 +1,51 @@
 package com.example.userservice.service;
 
+import com.example.userservice.deadline.RequestDeadline;
+import com.example.userservice.dto.UserBatchResponseDTO;
+import com.example.userservice.dto.UserBulkCreateResponseDTO;
+import com.example.userservice.dto.UserChangesDTO;
+import com.example.userservice.dto.UserCursorPageDTO;
 import com.example.userservice.dto.UserRequestDTO;
 import com.example.userservice.dto.UserResponseDTO;
 import com.example.userservice.entity.User;
+import com.example.userservice.exception.DeadlineExceededException;
 import com.example.userservice.exception.EmailAlreadyExistsException;
+import com.example.userservice.exception.InvalidPageRequestException;
 import com.example.userservice.exception.UserNotFoundException;
 import com.example.userservice.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.jpa.EntityManagerHolder;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.IntStream;
 
 import static com.example.userservice.uril.FakeEntities.userRequestDTOBuilder;
@@ -35,6 +64,27 @@ class UserServiceIntegrationTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserChangeFeed userChangeFeed;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserExportService userExportService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @BeforeEach
     void setUp() {
         userRepository.deleteAll();
@@ -82,6 +132,89 @@ class UserServiceIntegrationTest {
         assertThat(firstSaved.getId()).isNotNull();
     }
 
+    @Test
+    @DisplayName("Should skip the email lookup for new emails and leave conflicts to the unique constraint")
+    void shouldCheckNewEmailsAgainstFilter() {
+        double negatives = meterRegistry.get("user.email.filter.checks").tag("result", "negative").counter().count();
+
+        userService.create(userRequestDTOBuilder().build());
+
+        assertThat(meterRegistry.get("user.email.filter.checks").tag("result", "negative").counter().count())
+                .isEqualTo(negatives + 1);
+
+        // saved without the service, so the filter does not know the email
+        User unknownToFilter = userRepository.saveAndFlush(User.builder()
+                .name("Elsewhere")
+                .email(userRequestDTOBuilder().build().getEmail())
+                .build());
+
+        assertThatThrownBy(() -> userService.create(userRequestDTOBuilder().email(unknownToFilter.getEmail()).build()))
+                .isInstanceOf(EmailAlreadyExistsException.class);
+    }
+
+    @Test
+    @DisplayName("Should not report other integrity violations as a taken email")
+    void shouldRethrowViolationsOtherThanTakenEmail() {
+        UserRequestDTO tooLong = userRequestDTOBuilder().name("x".repeat(300)).build();
+
+        assertThatThrownBy(() -> userService.create(tooLong))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .isNotInstanceOf(EmailAlreadyExistsException.class);
+    }
+
+    @Test
+    @DisplayName("Should create users in bulk and report taken and repeated emails as conflicts")
+    void shouldCreateUsersInBulkAndReportConflicts() {
+        UserResponseDTO existing = userService.create(userRequestDTOBuilder().build());
+        UserRequestDTO first = userRequestDTOBuilder().build();
+        UserRequestDTO second = userRequestDTOBuilder().build();
+        List<UserRequestDTO> requests = List.of(
+                first,
+                userRequestDTOBuilder().email(existing.getEmail()).build(),
+                second,
+                userRequestDTOBuilder().email(first.getEmail()).build());
+
+        UserBulkCreateResponseDTO response = userService.createAll(requests);
+
+        assertThat(response.getCreated()).isEqualTo(2);
+        assertThat(response.getConflicts()).isEqualTo(2);
+        assertThat(response.getResults())
+                .extracting(UserBulkCreateResponseDTO.ItemResult::getStatus)
+                .containsExactly(UserBulkCreateResponseDTO.Status.CREATED, UserBulkCreateResponseDTO.Status.CONFLICT,
+                        UserBulkCreateResponseDTO.Status.CREATED, UserBulkCreateResponseDTO.Status.CONFLICT);
+        assertThat(response.getResults().get(2).getUser().getEmail()).isEqualTo(second.getEmail());
+        assertThat(userRepository.count()).isEqualTo(3);
+
+        List<Long> sequences = userRepository.findAll().stream().map(User::getChangeSequence).sorted().toList();
+        assertThat(sequences).doesNotHaveDuplicates().doesNotContainNull();
+        assertThat(userChangeFeed.changesSince(sequences.get(0), 10, Duration.ZERO).join().getUsers())
+                .extracting(UserResponseDTO::getEmail)
+                .containsExactly(first.getEmail(), second.getEmail());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Should report an email registered after the check as a conflict in a bulk create")
+    void shouldReportConcurrentlyRegisteredEmailAsConflict() {
+        UserRequestDTO raced = userRequestDTOBuilder().build();
+        UserRequestDTO other = userRequestDTOBuilder().build();
+        // registered by another instance, so this instance's email filter has not seen it
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> userRepository.saveAndFlush(
+                User.builder()
+                        .name(raced.getName())
+                        .email(raced.getEmail())
+                        .changeSequence(userChangeFeed.nextSequence())
+                        .build()));
+
+        UserBulkCreateResponseDTO response = userService.createAll(List.of(raced, other));
+
+        assertThat(response.getCreated()).isEqualTo(1);
+        assertThat(response.getResults())
+                .extracting(UserBulkCreateResponseDTO.ItemResult::getStatus)
+                .containsExactly(UserBulkCreateResponseDTO.Status.CONFLICT, UserBulkCreateResponseDTO.Status.CREATED);
+        assertThat(userRepository.count()).isEqualTo(2);
+    }
+
     @Test
     @DisplayName("Should retrieve user by id successfully when user exists")
     void shouldGetUserByIdSuccessfully() {
@@ -96,6 +229,20 @@ class UserServiceIntegrationTest {
                 .isEqualTo(savedUser);
     }
 
+    @Test
+    @DisplayName("Should read the version of a user and reject unknown ids")
+    void shouldGetVersionOfExistingUser() {
+        UserResponseDTO savedUser = userService.create(userRequestDTOBuilder().build());
+
+        assertThat(userService.getVersion(savedUser.getId())).isZero();
+        assertThatThrownBy(() -> userService.getVersion(999L))
+                .isInstanceOf(UserNotFoundException.class);
+
+        UserService.VersionedUser versioned = userService.getVersionedById(savedUser.getId());
+        assertThat(versioned.version()).isZero();
+        assertThat(versioned.user()).usingRecursiveComparison().isEqualTo(savedUser);
+    }
+
     @Test
     @DisplayName("Should throw UserNotFoundException when user id does not exist")
     void shouldThrowExceptionWhenUserNotFound() {
@@ -107,6 +254,22 @@ class UserServiceIntegrationTest {
                 .hasMessageContaining("not found");
     }
 
+    @Test
+    @DisplayName("Should retrieve users by ids and report missing ids")
+    void shouldGetUsersByIdsAndReportMissingIds() {
+        UserResponseDTO first = userService.create(userRequestDTOBuilder().build());
+        UserResponseDTO second = userService.create(userRequestDTOBuilder().build());
+        Long nonExistentId = 999L;
+
+        UserBatchResponseDTO response = userService.getByIds(
+                List.of(first.getId(), nonExistentId, second.getId(), first.getId()));
+
+        assertThat(response.getUsers())
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyInAnyOrder(first, second);
+        assertThat(response.getMissingIds()).containsExactly(nonExistentId);
+    }
+
     @Test
     @DisplayName("Should retrieve all users with pagination")
     void shouldGetAllUsersWithPagination() {
@@ -136,4 +299,162 @@ class UserServiceIntegrationTest {
         assertThat(page.getTotalPages()).isEqualTo(0);
         assertThat(page.getContent()).isEmpty();
     }
+
+    @Test
+    @DisplayName("Should walk all users with a keyset cursor in the requested order")
+    void shouldWalkAllUsersWithCursor() {
+        List<UserResponseDTO> created = IntStream.range(0, 5)
+                .mapToObj(i -> userService.create(userRequestDTOBuilder().build()))
+                .sorted(Comparator.comparing(UserResponseDTO::getEmail).reversed())
+                .toList();
+
+        List<String> walked = new ArrayList<>();
+        UserCursorPageDTO page = userService.getAllAfter("", Sort.by(Sort.Direction.DESC, "email"), 2);
+        walked.addAll(page.getUsers().stream().map(UserResponseDTO::getEmail).toList());
+        while (page.getNext() != null) {
+            // the cursor keeps the order of the first page
+            page = userService.getAllAfter(page.getNext(), Sort.unsorted(), 2);
+            walked.addAll(page.getUsers().stream().map(UserResponseDTO::getEmail).toList());
+        }
+
+        assertThat(walked).containsExactlyElementsOf(created.stream().map(UserResponseDTO::getEmail).toList());
+    }
+
+    @Test
+    @DisplayName("Should page without a count and reject sort keys without an index")
+    void shouldGetSliceAndRejectUnindexedSortKeys() {
+        IntStream.range(0, 3).forEach(i -> userService.create(userRequestDTOBuilder().build()));
+
+        Slice<UserResponseDTO> slice = userService.getSlice(PageRequest.of(0, 2, Sort.by("id")));
+
+        assertThat(slice.getContent()).hasSize(2);
+        assertThat(slice.hasNext()).isTrue();
+        assertThatThrownBy(() -> userService.getSlice(PageRequest.of(0, 2, Sort.by("name"))))
+                .isInstanceOf(InvalidPageRequestException.class);
+        assertThatThrownBy(() -> userService.getAllAfter("", Sort.by("createdAt"), 2))
+                .isInstanceOf(InvalidPageRequestException.class);
+        assertThatThrownBy(() -> userService.getAllAfter("not-a-cursor", Sort.unsorted(), 2))
+                .isInstanceOf(InvalidPageRequestException.class);
+    }
+
+    @Test
+    @DisplayName("Should reject cursors whose keys do not match the sort key and id")
+    void shouldRejectTamperedCursors() {
+        IntStream.range(0, 3).forEach(i -> userService.create(userRequestDTOBuilder().build()));
+        String next = userService.getAllAfter("", Sort.by("email"), 1).getNext();
+        assertThat(userService.getAllAfter(next, Sort.unsorted(), 1).getUsers()).hasSize(1);
+
+        List.of(
+                "{\"property\":\"email\",\"direction\":\"ASC\",\"keys\":{\"email\":\"a@b.c\"}}",
+                "{\"property\":\"email\",\"direction\":\"ASC\",\"keys\":{\"email\":\"a@b.c\",\"id\":\"1\"}}",
+                "{\"property\":\"email\",\"direction\":\"ASC\",\"keys\":{\"email\":7,\"id\":1}}",
+                "{\"property\":\"id\",\"direction\":\"ASC\",\"keys\":{\"id\":1.5}}",
+                "{\"property\":\"id\",\"direction\":\"ASC\",\"keys\":{\"id\":1,\"name\":\"x\"}}",
+                "{\"property\":\"name\",\"direction\":\"ASC\",\"keys\":{\"name\":\"x\",\"id\":1}}"
+        ).forEach(json -> {
+            String tampered = Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(json.getBytes(StandardCharsets.UTF_8));
+            assertThatThrownBy(() -> userService.getAllAfter(tampered, Sort.unsorted(), 1))
+                    .as(json)
+                    .isInstanceOf(InvalidPageRequestException.class);
+        });
+    }
+
+    @Test
+    @DisplayName("Should export users in the id range as NDJSON without keeping them managed")
+    void shouldExportUsersAsNdjson() throws Exception {
+        List<UserResponseDTO> created = IntStream.range(0, 4)
+                .mapToObj(i -> userService.create(userRequestDTOBuilder().build()))
+                .toList();
+        entityManager.flush();
+        entityManager.clear();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long written = userExportService.export(created.get(1).getId(), created.get(3).getId(), null, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(written).isEqualTo(3);
+        assertThat(lines).hasSize(3);
+        assertThat(objectMapper.readValue(lines.get(0), UserResponseDTO.class))
+                .usingRecursiveComparison()
+                .isEqualTo(created.get(1));
+        assertThat(out.toString(StandardCharsets.UTF_8)).endsWith("\n");
+        assertThat(entityManager.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Should not touch the database once the request deadline has passed")
+    void shouldRejectRequestsPastTheirDeadline() {
+        UserResponseDTO saved = userService.create(userRequestDTOBuilder().build());
+
+        RequestDeadline.set(0);
+        try {
+            assertThatThrownBy(() -> userService.getById(saved.getId()))
+                    .isInstanceOf(DeadlineExceededException.class);
+        } finally {
+            RequestDeadline.clear();
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Should cut the transaction timeout to the time left before the deadline")
+    void shouldLimitTransactionTimeoutToDeadline() {
+        RequestDeadline.set(1_500);
+        try {
+            assertThat(transactionTimeoutMillis()).isBetween(1_000L, 1_500L);
+            // less than a second left still leaves time for queries
+            RequestDeadline.set(800);
+            assertThat(userChangeFeed.head()).isNotNegative();
+        } finally {
+            RequestDeadline.clear();
+        }
+
+        assertThat(transactionTimeoutMillis()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should return users changed after the cursor in change order")
+    void shouldReturnChangesAfterCursor() {
+        long start = userChangeFeed.head();
+        UserResponseDTO first = userService.create(userRequestDTOBuilder().build());
+        UserResponseDTO second = userService.create(userRequestDTOBuilder().build());
+
+        UserChangesDTO firstPage = userChangeFeed.changesSince(start, 1, Duration.ZERO).join();
+        UserChangesDTO secondPage = userChangeFeed.changesSince(firstPage.getCursor(), 1, Duration.ZERO).join();
+
+        assertThat(firstPage.getUsers()).extracting(UserResponseDTO::getId).containsExactly(first.getId());
+        assertThat(secondPage.getUsers()).extracting(UserResponseDTO::getId).containsExactly(second.getId());
+        assertThat(secondPage.getCursor()).isGreaterThan(firstPage.getCursor());
+
+        UserChangesDTO empty = userChangeFeed.changesSince(secondPage.getCursor(), 10, Duration.ZERO).join();
+        assertThat(empty.getUsers()).isEmpty();
+        assertThat(empty.getCursor()).isEqualTo(secondPage.getCursor());
+        assertThat(userChangeFeed.head()).isEqualTo(secondPage.getCursor());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Should hold a request for changes until a user is saved")
+    void shouldCompleteLongPollWhenUserIsSaved() throws Exception {
+        long cursor = userChangeFeed.changesSince(0, 1000, Duration.ZERO).join().getCursor();
+        CompletableFuture<UserChangesDTO> changes = userChangeFeed.changesSince(cursor, 10, Duration.ofSeconds(10));
+        assertThat(changes).isNotDone();
+
+        UserResponseDTO saved = userService.create(userRequestDTOBuilder().build());
+
+        UserChangesDTO result = changes.get(5, TimeUnit.SECONDS);
+        assertThat(result.getUsers()).extracting(UserResponseDTO::getId).containsExactly(saved.getId());
+        assertThat(result.getCursor()).isGreaterThan(cursor);
+    }
+
+    // read inside the transaction: the holder forgets its timeout once the transaction completes
+    private Long transactionTimeoutMillis() {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            EntityManagerHolder holder =
+                    (EntityManagerHolder) TransactionSynchronizationManager.getResource(entityManagerFactory);
+            return holder.hasTimeout() ? holder.getTimeToLiveInMillis() : null;
+        });
+    }
 }
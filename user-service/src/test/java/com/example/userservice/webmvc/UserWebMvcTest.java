@@ -1,10 +1,19 @@
 package com.example.userservice.webmvc;
 
 import com.example.userservice.controller.UserController;
+import com.example.userservice.dto.UserBatchRequestDTO;
+import com.example.userservice.dto.UserBatchResponseDTO;
+import com.example.userservice.dto.UserBulkCreateRequestDTO;
+import com.example.userservice.dto.UserBulkCreateResponseDTO;
+import com.example.userservice.dto.UserChangesDTO;
+import com.example.userservice.dto.UserCursorPageDTO;
 import com.example.userservice.dto.UserRequestDTO;
 import com.example.userservice.dto.UserResponseDTO;
 import com.example.userservice.exception.GlobalExceptionHandler;
+import com.example.userservice.exception.InvalidPageRequestException;
 import com.example.userservice.exception.UserNotFoundException;
+import com.example.userservice.service.UserChangeFeed;
+import com.example.userservice.service.UserExportService;
 import com.example.userservice.service.UserService;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -19,21 +28,33 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.IntStream;
 
 import static com.example.userservice.uril.FakeEntities.userRequestDTOBuilder;
 import static com.example.userservice.uril.FakeEntities.userResponseDTOBuilder;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = UserController.class)
@@ -48,6 +69,12 @@ class UserWebMvcTest {
     @MockBean
     private UserService userService;
 
+    @MockBean
+    private UserChangeFeed userChangeFeed;
+
+    @MockBean
+    private UserExportService userExportService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -144,7 +171,7 @@ class UserWebMvcTest {
         UserResponseDTO expected = userResponseDTOBuilder().build();
         Long userId = expected.getId();
 
-        when(userService.getById(userId)).thenReturn(expected);
+        when(userService.getVersionedById(userId)).thenReturn(new UserService.VersionedUser(expected, 0L));
 
 
         String json = mockMvc.perform(get("/users/{id}", userId))
@@ -162,14 +189,59 @@ class UserWebMvcTest {
                 .usingRecursiveComparison()
                 .isEqualTo(expected);
 
-        verify(userService, times(1)).getById(userId);
+        verify(userService, times(1)).getVersionedById(userId);
+        verify(userService, never()).getVersion(userId);
+    }
+
+    @Test
+    @DisplayName("GET /users/{id} - should send an ETag and answer a matching If-None-Match with 304")
+    void shouldAnswerConditionalGetWithNotModified() throws Exception {
+        UserResponseDTO expected = userResponseDTOBuilder().build();
+        Long userId = expected.getId();
+
+        when(userService.getVersion(userId)).thenReturn(3L);
+        when(userService.getVersionedById(userId)).thenReturn(new UserService.VersionedUser(expected, 3L));
+
+        mockMvc.perform(get("/users/{id}", userId))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+
+        String body = mockMvc.perform(get("/users/{id}", userId)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertThat(body).isEmpty();
+        verify(userService, times(1)).getVersion(userId);
+        verify(userService, times(1)).getVersionedById(userId);
+    }
+
+    @Test
+    @DisplayName("GET /users/{id} - should load the user once when the ETag does not match")
+    void shouldReturnUserWhenETagIsStale() throws Exception {
+        UserResponseDTO expected = userResponseDTOBuilder().build();
+        Long userId = expected.getId();
+
+        when(userService.getVersion(userId)).thenReturn(4L);
+        when(userService.getVersionedById(userId)).thenReturn(new UserService.VersionedUser(expected, 4L));
+
+        mockMvc.perform(get("/users/{id}", userId)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
+                .andExpect(jsonPath("$.id").value(userId));
+
+        verify(userService, times(1)).getVersionedById(userId);
     }
 
     @Test
     @DisplayName("GET /users/{id} - should return 404 when user not found")
     void shouldReturn404WhenUserNotFound() throws Exception {
         Long id = 999L;
-        when(userService.getById(id)).thenThrow(new UserNotFoundException(id));
+        when(userService.getVersionedById(id)).thenThrow(new UserNotFoundException(id));
 
         String json = mockMvc.perform(get("/users/{id}", id))
                 .andExpect(status().isNotFound())
@@ -183,7 +255,70 @@ class UserWebMvcTest {
         assertThat(root.get("error").asText()).isEqualTo("Not Found");
         assertThat(root.get("message").asText()).isEqualTo("User with id 999 not found");
 
-        verify(userService, times(1)).getById(id);
+        verify(userService, times(1)).getVersionedById(id);
+    }
+
+    @Test
+    @DisplayName("POST /users/batch-get - get users by ids successfully")
+    void shouldGetUsersByIdsSuccessfully() throws Exception {
+        UserResponseDTO found = userResponseDTOBuilder().build();
+        Long missingId = found.getId() + 1;
+        UserBatchRequestDTO request = UserBatchRequestDTO.builder()
+                .ids(List.of(found.getId(), missingId))
+                .build();
+
+        UserBatchResponseDTO expected = UserBatchResponseDTO.builder()
+                .users(List.of(found))
+                .missingIds(List.of(missingId))
+                .build();
+
+        when(userService.getByIds(request.getIds())).thenReturn(expected);
+
+        String json = mockMvc.perform(post("/users/batch-get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        UserBatchResponseDTO actual =
+                objectMapper.readValue(json, UserBatchResponseDTO.class);
+
+        assertThat(actual)
+                .usingRecursiveComparison()
+                .isEqualTo(expected);
+
+        verify(userService, times(1)).getByIds(request.getIds());
+    }
+
+    @Test
+    @DisplayName("POST /users/batch-get - should return 400 when ids are empty")
+    void shouldReturn400WhenBatchIdsAreEmpty() throws Exception {
+        UserBatchRequestDTO invalidRequest = UserBatchRequestDTO.builder()
+                .ids(List.of())
+                .build();
+
+        String json = mockMvc.perform(post("/users/batch-get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(invalidRequest)))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        JsonNode root = objectMapper.readTree(json);
+
+        assertThat(root.get("status").asInt()).isEqualTo(400);
+        assertThat(root.get("error").asText()).isEqualTo("Validation Failed");
+
+        JsonNode firstError = root.get("validationErrors").get(0);
+        assertThat(firstError.get("field").asText()).isEqualTo("ids");
+        assertThat(firstError.get("message").asText()).isEqualTo("At least one id is required");
+
+        verify(userService, never()).getByIds(any());
     }
 
     @Test
@@ -227,4 +362,117 @@ class UserWebMvcTest {
 
         verify(userService, times(1)).getAll(any(Pageable.class));
     }
+
+    @Test
+    @DisplayName("GET /users?after= - return a page of users and the next cursor")
+    void shouldGetUsersAfterCursor() throws Exception {
+        UserResponseDTO user = userResponseDTOBuilder().build();
+        when(userService.getAllAfter("", Sort.by(Sort.Direction.DESC, "email"), 50))
+                .thenReturn(new UserCursorPageDTO(List.of(user), "abc"));
+
+        mockMvc.perform(get("/users")
+                        .param("after", "")
+                        .param("size", "50")
+                        .param("sort", "email,desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.next").value("abc"))
+                .andExpect(jsonPath("$.users[0].id").value(user.getId()));
+
+        verify(userService, never()).getAll(any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("GET /users?after= - reject a sort key without an index")
+    void shouldRejectCursorPageOnUnindexedSortKey() throws Exception {
+        when(userService.getAllAfter(eq(""), any(Sort.class), eq(100)))
+                .thenThrow(new InvalidPageRequestException("Sort by one of [email, id], got 'name: ASC'"));
+
+        mockMvc.perform(get("/users")
+                        .param("after", "")
+                        .param("sort", "name"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400));
+    }
+
+    @Test
+    @DisplayName("POST /users/batch - report the result of every user")
+    void shouldCreateUsersInBulk() throws Exception {
+        UserRequestDTO request = userRequestDTOBuilder().build();
+        UserResponseDTO created = userResponseDTOBuilder().email(request.getEmail()).build();
+        when(userService.createAll(any())).thenReturn(new UserBulkCreateResponseDTO(1, 1, List.of(
+                new UserBulkCreateResponseDTO.ItemResult(0, UserBulkCreateResponseDTO.Status.CREATED, created, null),
+                new UserBulkCreateResponseDTO.ItemResult(1, UserBulkCreateResponseDTO.Status.CONFLICT, null,
+                        "Email '" + request.getEmail() + "' is already in use"))));
+
+        mockMvc.perform(post("/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UserBulkCreateRequestDTO(List.of(request, request)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.results[0].user.id").value(created.getId()))
+                .andExpect(jsonPath("$.results[1].status").value("CONFLICT"))
+                .andExpect(jsonPath("$.results[1].user").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("POST /users/batch - reject invalid users")
+    void shouldRejectInvalidUsersInBulk() throws Exception {
+        UserRequestDTO invalid = userRequestDTOBuilder().email("not-an-email").build();
+
+        mockMvc.perform(post("/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UserBulkCreateRequestDTO(List.of(invalid)))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.validationErrors[0].field").value("users[0].email"));
+
+        verify(userService, never()).createAll(any());
+    }
+
+    @Test
+    @DisplayName("GET /users/export - stream users as newline-delimited JSON")
+    void shouldExportUsersAsNdjson() throws Exception {
+        String lines = "{\"id\":1,\"name\":\"a\",\"email\":\"a@example.com\"}\n"
+                + "{\"id\":2,\"name\":\"b\",\"email\":\"b@example.com\"}\n";
+        when(userExportService.export(eq(1L), eq(Long.MAX_VALUE), isNull(), any(OutputStream.class)))
+                .thenAnswer(invocation -> {
+                    invocation.<OutputStream>getArgument(3).write(lines.getBytes(StandardCharsets.UTF_8));
+                    return 2L;
+                });
+
+        mockMvc.perform(get("/users/export").param("fromId", "1"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string(lines));
+    }
+
+    @Test
+    @DisplayName("GET /users/changes - return changed users and the next cursor")
+    void shouldGetChangesSinceCursor() throws Exception {
+        UserResponseDTO changed = userResponseDTOBuilder().build();
+        when(userChangeFeed.changesSince(7L, 50, Duration.ofSeconds(10)))
+                .thenReturn(CompletableFuture.completedFuture(new UserChangesDTO(List.of(changed), 9L)));
+
+        var result = mockMvc.perform(get("/users/changes")
+                        .param("since", "7")
+                        .param("limit", "50")
+                        .param("waitSeconds", "10"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cursor").value(9))
+                .andExpect(jsonPath("$.users[0].id").value(changed.getId()));
+    }
+
+    @Test
+    @DisplayName("GET /users/changes/head - return no users and the latest cursor")
+    void shouldGetChangesHead() throws Exception {
+        when(userChangeFeed.head()).thenReturn(42L);
+
+        mockMvc.perform(get("/users/changes/head"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cursor").value(42))
+                .andExpect(jsonPath("$.users").isEmpty());
+    }
 }